@@ -1,7 +1,7 @@
 package com.player.mediaplayer;
 
-import com.player.mediaplayer.models.PlayerState;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.image.Image;
@@ -17,20 +17,31 @@ public class PlayerApplication extends Application {
     }
     @Override
     public void start(Stage stage) throws IOException {
+        PlayerContext.startupTimer.mark("start");
         loadFonts();
         FXMLLoader fxmlLoader = new FXMLLoader(PlayerApplication.class.getResource("MainPane.fxml"));
         Scene scene = new Scene(fxmlLoader.load(), 1366, 768);
         stage.setScene(scene);
         stage.setOnHidden(e -> {
-            if (PlayerContext.globalTimer != null) {
-                PlayerContext.globalTimer.cancel();
-            }
             PlayerContext.player.saveState();
+            PlayerContext.player.releaseMedia();
+            if (PlayerContext.profiling) {
+                System.out.println(PlayerContext.player.getPlaybackSessions());
+            }
         });
         stage.initStyle(StageStyle.UNDECORATED);
         stage.getIcons().add(new Image("file:src/main/resources/com/player/mediaplayer/images/music_notes_icon.png"));
-        PlayerContext.player.applyState();
+        Runnable firstFrame = new Runnable() {
+            @Override
+            public void run() {
+                PlayerContext.startupTimer.mark("first frame");
+                Platform.runLater(() -> scene.removePostLayoutPulseListener(this));
+            }
+        };
+        scene.addPostLayoutPulseListener(firstFrame);
         stage.show();
+        PlayerContext.startupTimer.mark("shown");
+        PlayerContext.player.loadLibrary(PlayerContext.startupTimer);
     }
 
     public static void main(String[] args) {
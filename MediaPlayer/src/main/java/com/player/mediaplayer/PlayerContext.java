@@ -2,7 +2,10 @@ package com.player.mediaplayer;
 
 import com.player.mediaplayer.models.PlayList;
 import com.player.mediaplayer.models.Player;
+import com.player.mediaplayer.models.PlaylistView;
 import com.player.mediaplayer.models.Track;
+import com.player.mediaplayer.utils.ArtworkStore;
+import com.player.mediaplayer.utils.StartupTimer;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -10,13 +13,14 @@ import javafx.collections.ObservableList;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Timer;
 
 public class PlayerContext {
-    public static Timer globalTimer = null;
-    public static ObservableList<Track> selectedPlaylist;
+    public final static boolean profiling = Boolean.getBoolean("player.profile");
+    public final static StartupTimer startupTimer = new StartupTimer();
+    public final static PlaylistView selectedPlaylist = new PlaylistView();
     public static List<Track> selectedPlaylistRef = null;
     public static SimpleStringProperty selectedPlaylistName = new SimpleStringProperty("All tracks");
+    public final static ArtworkStore artworkStore = new ArtworkStore(64 * 1024 * 1024);
     public final static Player player = new Player();
     private PlayerContext() {}
 }
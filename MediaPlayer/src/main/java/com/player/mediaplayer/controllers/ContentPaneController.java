@@ -5,48 +5,65 @@ import com.mpatric.mp3agic.UnsupportedTagException;
 import com.player.mediaplayer.PlayerContext;
 import com.player.mediaplayer.models.PlayList;
 import com.player.mediaplayer.models.Player;
+import com.player.mediaplayer.models.SortedPlaylistView;
 import com.player.mediaplayer.models.Track;
 import com.player.mediaplayer.utils.MP3Parser;
 import javafx.beans.InvalidationListener;
 import javafx.beans.Observable;
 import javafx.beans.binding.Bindings;
-import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
-import javafx.collections.FXCollections;
+import javafx.event.Event;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.input.Dragboard;
 import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
 import javafx.scene.input.TransferMode;
 import javafx.scene.layout.AnchorPane;
 import javafx.util.Callback;
 import org.controlsfx.control.textfield.CustomTextField;
-import org.kordamp.ikonli.javafx.FontIcon;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
 
 public class ContentPaneController implements Initializable {
     private final Player player = PlayerContext.player;
     public CustomTextField songSearchField;
     public TableView<Track> songsListTable;
-    public TableColumn songName;
-    public TableColumn songArtist;
-    public TableColumn songAlbum;
-    public TableColumn songDuration;
-    public TableColumn songLiked;
+    public TableColumn<Track, String> songName;
+    public TableColumn<Track, String> songArtist;
+    public TableColumn<Track, String> songAlbum;
+    public TableColumn<Track, String> songDuration;
+    public TableColumn<Track, Track> songLiked;
     public Label tableLabel;
-    public TableColumn songNumber;
-    public TableColumn songSettings;
+    public TableColumn<Track, Void> songNumber;
+    public TableColumn<Track, Track> songSettings;
+    private SortedPlaylistView sortedPlaylist;
+    private ContextMenu songContextMenu = null;
+    private Menu playlistMenu = null;
+    private boolean playlistMenuStale = true;
+    private int songContextMenuIndex = -1;
+    private final TableIcon likedIcon = new TableIcon("mdi2h-heart");
+    private final TableIcon notLikedIcon = new TableIcon("mdi2h-heart-outline");
+    private final TableIcon settingsIcon = new TableIcon("fltfmz-more-16");
+    private final Map<TableColumn<Track, ?>, Comparator<Track>> columnComparators = new HashMap<>();
 
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
-        PlayerContext.selectedPlaylist = FXCollections.observableArrayList(player.getCurrentPlayList());
+        PlayerContext.selectedPlaylist.setSource(player.getCurrentPlayList());
+        sortedPlaylist = new SortedPlaylistView(PlayerContext.selectedPlaylist);
+        songsListTable.setItems(sortedPlaylist);
+        songsListTable.setSortPolicy(table -> sortPlayList());
         songName.setCellValueFactory(new PropertyValueFactory<>("SongName"));
         songArtist.setCellValueFactory(new PropertyValueFactory<>("SongArtist"));
         songAlbum.setCellValueFactory(new PropertyValueFactory<>("SongAlbum"));
@@ -63,9 +80,12 @@ public class ContentPaneController implements Initializable {
     }
 
     private void initializeColumns() {
-        songNumber.setCellValueFactory((Callback<TableColumn.CellDataFeatures<Track, String>, ObservableValue<String>>) item -> new ReadOnlyObjectWrapper(songsListTable.getItems().indexOf(item.getValue()) + 1 + ""));
+        songNumber.setCellFactory(column -> new RowNumberCell<>());
         songNumber.setSortable(false);
-        songDuration.setSortable(false);
+        columnComparators.put(songName, Track.BY_NAME);
+        columnComparators.put(songArtist, Track.BY_ARTIST);
+        columnComparators.put(songAlbum, Track.BY_ALBUM);
+        columnComparators.put(songDuration, Track.BY_DURATION);
         songNumber.setReorderable(false);
         songName.setReorderable(false);
         songArtist.setReorderable(false);
@@ -74,6 +94,22 @@ public class ContentPaneController implements Initializable {
         songLiked.setReorderable(false);
     }
 
+    private boolean sortPlayList() {
+        Comparator<Track> comparator = null;
+        for (TableColumn<Track, ?> column : songsListTable.getSortOrder()) {
+            Comparator<Track> columnComparator = columnComparators.get(column);
+            if (columnComparator == null) {
+                continue;
+            }
+            if (column.getSortType() == TableColumn.SortType.DESCENDING) {
+                columnComparator = columnComparator.reversed();
+            }
+            comparator = comparator == null ? columnComparator : comparator.thenComparing(columnComparator);
+        }
+        sortedPlaylist.setComparator(comparator);
+        return true;
+    }
+
     private void showFavoritesAction() {
         PlayerContext.selectedPlaylistName.addListener((observableValue, s, t1) -> {
             tableLabel.setText(observableValue.getValue());
@@ -91,16 +127,11 @@ public class ContentPaneController implements Initializable {
     }
 
     private void observePlayList() {
-        PlayerContext.selectedPlaylist.addListener((InvalidationListener) observable -> {
-            songsListTable.getItems().clear();
-            for (Track track : PlayerContext.selectedPlaylist) {
-                try {
-                    addToSongListTable(track);
-                } catch (InvalidDataException | UnsupportedTagException | IOException e) {
-                    throw new RuntimeException(e);
-                }
+        sortedPlaylist.addListener((InvalidationListener) observable -> {
+            Track currentTrack = player.getCurrentTrack().get();
+            if (currentTrack != null && songsListTable.getSelectionModel().getSelectedItem() != currentTrack) {
+                songsListTable.getSelectionModel().select(currentTrack);
             }
-            songsListTable.getSelectionModel().select(player.getCurrentTrack().get());
         });
     }
 
@@ -108,6 +139,7 @@ public class ContentPaneController implements Initializable {
         player.getCurrentTrack().addListener((observableValue, number, t1) -> {
             songsListTable.getSelectionModel().select(player.getCurrentTrack().get());
         });
+        player.getTagsRevision().addListener(observable -> songsListTable.refresh());
     }
 
     private void setupDragAndDrop() {
@@ -117,28 +149,30 @@ public class ContentPaneController implements Initializable {
         songsListTable.setOnDragDropped(dragEvent -> {
             Dragboard dragboard = dragEvent.getDragboard();
             if (dragboard.hasFiles()) {
+                List<Track> tracks = new ArrayList<>();
                 for (File file : dragboard.getFiles()) {
                     try {
-                        player.addTrack(MP3Parser.parse(file));
+                        tracks.add(MP3Parser.parse(file));
                     } catch (InvalidDataException | UnsupportedTagException | IOException e) {
                         throw new RuntimeException(e);
                     }
                 }
+                player.addTracks(tracks);
             }
         });
     }
 
-    public void addToSongListTable(Track track) throws InvalidDataException, UnsupportedTagException, IOException {
-        songsListTable.getItems().add(track);
-    }
-
     public void elementClickHandler() {
         songsListTable.setRowFactory(tableView -> {
             TableRow<Track> row = new TableRow<>();
             row.setOnMouseClicked(mouseEvent -> {
                 if (!row.isEmpty() && mouseEvent.getButton() == MouseButton.PRIMARY) {
                     if (mouseEvent.getClickCount() == 2) {
-                        player.setCurrentPlayList(PlayerContext.selectedPlaylist);
+                        if (sortedPlaylist.getComparator() == null && PlayerContext.selectedPlaylistRef != player.getQueue()) {
+                            player.setCurrentPlayList(PlayerContext.selectedPlaylist);
+                        } else {
+                            player.setCurrentPlayList(new ArrayList<>(sortedPlaylist));
+                        }
                         player.setCurrentTrack(row.getItem());
                         player.setCurrentTrackID(row.getIndex());
                     }
@@ -150,10 +184,7 @@ public class ContentPaneController implements Initializable {
 
     private void searchBarAction() {
         songSearchField.textProperty().addListener((observableValue, oldValue, newValue) -> {
-            player.setCurrentTrackFilter(track ->
-                    (track.getSongName().toLowerCase().contains(newValue.toLowerCase().trim()) ||
-                            ((track.getSongArtist() != null) ? track.getSongArtist().toLowerCase() : "").contains(newValue.toLowerCase().trim()))
-            );
+            player.setSearchQuery(newValue);
             if (observableValue.getValue().isEmpty()) {
                 PlayerContext.selectedPlaylistName.setValue("All tracks");
             }
@@ -168,27 +199,25 @@ public class ContentPaneController implements Initializable {
             @Override
             public TableCell<Track, Track> call(TableColumn<Track, Track> param) {
                 final TableCell<Track, Track> cell = new TableCell<>() {
-                    private final ToggleButton favoriteButton = new ToggleButton();
-
-                    {
-                        favoriteButton.setId("favoriteButton");
-                        favoriteButton.setGraphic(new FontIcon());
-                        favoriteButton.setOnMouseClicked(mouseEvent -> {
-                            PlayerContext.selectedPlaylist.get(getIndex()).setSongLiked(favoriteButton.isSelected());
-                        });
-                    }
-
                     @Override
                     public void updateItem(Track item, boolean empty) {
                         super.updateItem(item, empty);
                         if (empty) {
-                            setGraphic(null);
+                            setText(null);
                         } else {
-                            favoriteButton.setSelected(PlayerContext.selectedPlaylist.get(getIndex()).getSongLiked());
-                            setGraphic(favoriteButton);
+                            showLiked(this, sortedPlaylist.get(getIndex()));
                         }
                     }
                 };
+                cell.addEventFilter(MouseEvent.MOUSE_PRESSED, Event::consume);
+                cell.addEventFilter(MouseEvent.MOUSE_CLICKED, mouseEvent -> {
+                    mouseEvent.consume();
+                    if (!cell.isEmpty()) {
+                        Track track = sortedPlaylist.get(cell.getIndex());
+                        player.setTrackLiked(track, !track.getSongLiked());
+                        showLiked(cell, track);
+                    }
+                });
                 cell.getStyleClass().add("cell-style");
                 cell.getStyleClass().add("favorite-table-button-alignment");
                 return cell;
@@ -198,53 +227,23 @@ public class ContentPaneController implements Initializable {
         Callback<TableColumn<Track, Track>, TableCell<Track, Track>> cellFactorySettings = new Callback<>() {
             @Override
             public TableCell<Track, Track> call(final TableColumn<Track, Track> param) {
-                ContextMenu songSettingsContextMenu = new ContextMenu();
-                Menu playlistMenu = new Menu("Add to playlist");
-                MenuItem queueMenuItem = new MenuItem("Add to queue");
-                MenuItem removeMenuItem = new MenuItem("Remove from the current playlist");
-
-                songSettingsContextMenu.getItems().add(playlistMenu);
-                songSettingsContextMenu.getItems().add(queueMenuItem);
-                songSettingsContextMenu.getItems().add(removeMenuItem);
-                songSettingsContextMenu.setId("settingsContextMenu");
                 final TableCell<Track, Track> cell = new TableCell<>() {
-                    private final Button settingsButton = new Button();
-                    {
-                        settingsButton.setId("settingsButton");
-                        settingsButton.setGraphic(new FontIcon());
-                        settingsButton.setOnMouseClicked(mouseEvent -> {
-                            songSettingsContextMenu.show(settingsButton.getScene().getWindow(), mouseEvent.getScreenX(), mouseEvent.getScreenY());
-                            removeMenuItem.setOnAction(actionEvent -> {
-                                Track trackToRemove = PlayerContext.selectedPlaylist.get(getIndex());
-                                player.getCurrentPlayList().remove(trackToRemove);
-                                PlayerContext.selectedPlaylist.remove(trackToRemove);
-                                if (PlayerContext.selectedPlaylistRef != null) {
-                                    PlayerContext.selectedPlaylistRef.remove(trackToRemove);
-                                }
-                            });
-                            queueMenuItem.setOnAction(actionEvent -> {
-                                player.addToQueue(PlayerContext.selectedPlaylist.get(getIndex()));
-                            });
-                        });
-                    }
-
                     @Override
                     public void updateItem(Track item, boolean empty) {
                         super.updateItem(item, empty);
                         if (empty) {
-                            setGraphic(null);
+                            setText(null);
                         } else {
-                            setGraphic(settingsButton);
+                            settingsIcon.applyTo(this);
                         }
                     }
                 };
-                songSettingsContextMenu.setOnShown(event -> {
-                    playlistMenu.getItems().clear();
-                    for (PlayList playlist : player.getPlayLists()) {
-                        MenuItem item = new MenuItem();
-                        item.textProperty().bind(playlist.getName());
-                        playlistMenu.getItems().add(item);
-                        item.setOnAction(actionEvent -> playlist.getPlayList().add(PlayerContext.selectedPlaylist.get(cell.getIndex())));
+                cell.addEventFilter(MouseEvent.MOUSE_PRESSED, Event::consume);
+                cell.addEventFilter(MouseEvent.MOUSE_CLICKED, mouseEvent -> {
+                    mouseEvent.consume();
+                    if (!cell.isEmpty()) {
+                        songContextMenuIndex = cell.getIndex();
+                        getSongContextMenu().show(cell.getScene().getWindow(), mouseEvent.getScreenX(), mouseEvent.getScreenY());
                     }
                 });
                 cell.getStyleClass().add("cell-style");
@@ -255,5 +254,54 @@ public class ContentPaneController implements Initializable {
 
         songLiked.setCellFactory(cellFactoryLiked);
         songSettings.setCellFactory(cellFactorySettings);
+        player.getPlayLists().addListener((InvalidationListener) observable -> playlistMenuStale = true);
+    }
+
+    private void showLiked(TableCell<Track, Track> cell, Track track) {
+        (track.getSongLiked() ? likedIcon : notLikedIcon).applyTo(cell);
+    }
+
+    private ContextMenu getSongContextMenu() {
+        if (songContextMenu != null) {
+            return songContextMenu;
+        }
+        songContextMenu = new ContextMenu();
+        playlistMenu = new Menu("Add to playlist");
+        MenuItem queueMenuItem = new MenuItem("Add to queue");
+        MenuItem removeMenuItem = new MenuItem("Remove from the current playlist");
+        queueMenuItem.setOnAction(actionEvent -> player.addToQueue(sortedPlaylist.get(songContextMenuIndex)));
+        removeMenuItem.setOnAction(actionEvent -> {
+            if (PlayerContext.selectedPlaylistRef == player.getQueue()) {
+                player.removeFromQueue(sortedPlaylist.getSourceIndex(songContextMenuIndex));
+                return;
+            }
+            Track trackToRemove = sortedPlaylist.get(songContextMenuIndex);
+            if (PlayerContext.selectedPlaylistRef != null) {
+                player.removeTrackFrom(PlayerContext.selectedPlaylistRef, trackToRemove);
+            }
+        });
+        songContextMenu.getItems().addAll(playlistMenu, queueMenuItem, removeMenuItem);
+        songContextMenu.setId("settingsContextMenu");
+        songContextMenu.setOnShowing(event -> {
+            if (playlistMenuStale) {
+                rebuildPlaylistMenu();
+            }
+        });
+        return songContextMenu;
+    }
+
+    private void rebuildPlaylistMenu() {
+        for (MenuItem item : playlistMenu.getItems()) {
+            item.textProperty().unbind();
+        }
+        List<MenuItem> items = new ArrayList<>(player.getPlayLists().size());
+        for (PlayList playlist : player.getPlayLists()) {
+            MenuItem item = new MenuItem();
+            item.textProperty().bind(playlist.getName());
+            item.setOnAction(actionEvent -> player.addToPlayList(playlist, sortedPlaylist.get(songContextMenuIndex)));
+            items.add(item);
+        }
+        playlistMenu.getItems().setAll(items);
+        playlistMenuStale = false;
     }
 }
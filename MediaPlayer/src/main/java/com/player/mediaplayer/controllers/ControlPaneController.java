@@ -4,25 +4,30 @@ import com.mpatric.mp3agic.InvalidDataException;
 import com.mpatric.mp3agic.UnsupportedTagException;
 import com.player.mediaplayer.PlayerContext;
 import com.player.mediaplayer.models.PlayList;
-import com.player.mediaplayer.models.PlayerState;
 import com.player.mediaplayer.models.Track;
 import com.player.mediaplayer.models.Player;
-import com.player.mediaplayer.utils.MP3Parser;
-import javafx.beans.InvalidationListener;
-import javafx.beans.Observable;
+import com.player.mediaplayer.utils.LibraryImporter;
+import com.player.mediaplayer.utils.TimeFormat;
+import javafx.animation.AnimationTimer;
 import javafx.beans.binding.Bindings;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
+import javafx.concurrent.Worker;
+import javafx.concurrent.WorkerStateEvent;
 import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
 import javafx.fxml.Initializable;
+import javafx.scene.Node;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.Slider;
 import javafx.scene.control.ToggleButton;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.StackPane;
+import javafx.scene.media.MediaPlayer;
 import javafx.scene.text.Text;
 import javafx.stage.DirectoryChooser;
 import javafx.stage.Stage;
@@ -32,8 +37,6 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ResourceBundle;
-import java.util.Timer;
-import java.util.TimerTask;
 
 public class ControlPaneController implements Initializable {
     private final Player player = PlayerContext.player;
@@ -53,6 +56,27 @@ public class ControlPaneController implements Initializable {
     public ToggleButton likedTracksButton;
     public Button showQueueButton;
     public Button showAllTracksButton;
+    public ProgressBar importProgressBar;
+    public Label importStatusText;
+    private final static String[] TRACK_STYLES = new String[101];
+    static {
+        for (int percent = 0; percent <= 100; ++percent) {
+            TRACK_STYLES[percent] = String.format("-fx-background-color: linear-gradient(to right, -fx-track-color %d%%, #a9a9a9 %d%%) !important;", percent, percent);
+        }
+    }
+    private final AnimationTimer progressTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            updateProgress();
+        }
+    };
+    private int displayedPixel = -1;
+    private int displayedSecond = -1;
+    private int displayedPercent = -1;
+    private Node durationTrack = null;
+    private LibraryImporter libraryImporter = null;
+    private Image defaultArtwork = null;
+    private Track artworkTrack = null;
 
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
@@ -71,15 +95,34 @@ public class ControlPaneController implements Initializable {
         setupPauseMediaAction();
         setShowAllTracksButtonAction();
         setQueueButtonAction();
+        observeLibraryLoading();
     }
 
     private void setSongImage() {
-        Image image = player.getCurrentTrack().get().getSongArtwork();
-        if (image == null) {
+        Track track = player.getCurrentTrack().get();
+        if (track == artworkTrack) {
+            return;
+        }
+        artworkTrack = track;
+        double width = albumImage.getFitWidth();
+        double height = albumImage.getFitHeight();
+        Image image = track.getCachedSongArtwork(width, height);
+        albumImage.setImage(image != null ? image : getDefaultArtwork());
+        if (image == null && track.hasSongArtwork()) {
+            track.loadSongArtwork(width, height, loaded -> {
+                if (artworkTrack == track) {
+                    albumImage.setImage(loaded != null ? loaded : getDefaultArtwork());
+                }
+            });
+        }
+    }
+
+    private Image getDefaultArtwork() {
+        if (defaultArtwork == null) {
             URL url = getClass().getResource("/com/player/mediaplayer/images/default_artwork.png");
-            image = new Image(url.toString());
+            defaultArtwork = new Image(url.toString());
         }
-        albumImage.setImage(image);
+        return defaultArtwork;
     }
 
     private void initializeButtonsIcons() {
@@ -96,8 +139,7 @@ public class ControlPaneController implements Initializable {
 
     private void setShowAllTracksButtonAction() {
         showAllTracksButton.setOnMouseClicked(mouseEvent -> {
-            PlayerContext.selectedPlaylist.clear();
-            PlayerContext.selectedPlaylist.addAll(player.getAllTracks());
+            PlayerContext.selectedPlaylist.setSource(player.getAllTracks());
             PlayerContext.selectedPlaylistRef = player.getAllTracks();
             PlayerContext.selectedPlaylistName.setValue("All tracks");
         });
@@ -105,8 +147,8 @@ public class ControlPaneController implements Initializable {
 
     private void setQueueButtonAction() {
         showQueueButton.setOnMouseClicked(mouseEvent -> {
-            PlayerContext.selectedPlaylist.clear();
-            PlayerContext.selectedPlaylist.addAll(player.getQueue());
+            PlayerContext.selectedPlaylist.setSource(player.getQueue());
+            PlayerContext.selectedPlaylistRef = player.getQueue();
             PlayerContext.selectedPlaylistName.setValue("Queue");
         });
     }
@@ -145,20 +187,64 @@ public class ControlPaneController implements Initializable {
 
     private void openFolderButtonAction() {
         folderButton.setOnMousePressed(mouseEvent -> {
+            if (libraryImporter != null && libraryImporter.isRunning()) {
+                libraryImporter.cancel();
+                return;
+            }
             DirectoryChooser directoryChoose = new DirectoryChooser();
             File directory = directoryChoose.showDialog(new Stage());
-            try {
-                if (directory != null) {
-                    File[] files = directory.listFiles((dir, name) -> name.toLowerCase().endsWith(".mp3"));
-                    if (files != null) {
-                        for (File file : files) {
-                            player.addTrack(MP3Parser.parse(file));
-                        }
-                    }
-                    player.setCurrentPlayList(player.getAllTracks());
-                }
-            } catch (InvalidDataException | UnsupportedTagException | IOException e) {
-                throw new RuntimeException(e);
+            if (directory != null) {
+                startLibraryImport(directory);
+            }
+        });
+    }
+
+    private void startLibraryImport(File directory) {
+        libraryImporter = new LibraryImporter(directory.toPath(), player.getTagCache(), player::addTracks);
+        showProgress(libraryImporter);
+        folderButton.setText("Cancel");
+        EventHandler<WorkerStateEvent> onFinished = workerStateEvent -> {
+            hideProgress();
+            folderButton.setText("Open folder");
+            player.setCurrentPlayList(player.getAllTracks());
+        };
+        libraryImporter.setOnSucceeded(onFinished);
+        libraryImporter.setOnCancelled(onFinished);
+        libraryImporter.setOnFailed(onFinished);
+        Thread thread = new Thread(libraryImporter, "library-import");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void showProgress(Worker<?> worker) {
+        importProgressBar.progressProperty().bind(worker.progressProperty());
+        importStatusText.textProperty().bind(worker.messageProperty());
+        importProgressBar.setVisible(true);
+        importStatusText.setVisible(true);
+    }
+
+    private void hideProgress() {
+        importProgressBar.progressProperty().unbind();
+        importStatusText.textProperty().unbind();
+        importProgressBar.setVisible(false);
+        importStatusText.setVisible(false);
+    }
+
+    private void observeLibraryLoading() {
+        player.getLibraryLoader().addListener((observableValue, oldLoader, newLoader) -> {
+            if (newLoader != null) {
+                folderButton.setDisable(true);
+                showProgress(newLoader);
+            } else {
+                folderButton.setDisable(false);
+                hideProgress();
+            }
+        });
+        player.getLoadedStateProperty().addListener((observableValue, oldState, newState) -> {
+            if (newState != null) {
+                volumeSlider.setValue(newState.currentVolume);
+                shuffleButton.setSelected(newState.isShuffling);
+                repeatSongButton.setSelected(newState.isRepeating);
             }
         });
     }
@@ -169,7 +255,13 @@ public class ControlPaneController implements Initializable {
             public void changed(ObservableValue<? extends Track> observableValue, Track track, Track t1) {
                 updateControlsDisable(false);
                 updateTrackInfo();
-                player.play();
+                player.requestPlay();
+            }
+        });
+        player.getTagsRevision().addListener(observable -> {
+            artworkTrack = null;
+            if (player.getCurrentTrack().get() != null) {
+                updateTrackInfo();
             }
         });
     }
@@ -184,10 +276,8 @@ public class ControlPaneController implements Initializable {
 
     private void setupPlayMediaAction() {
         player.setOnPlay(() -> {
-            if (PlayerContext.globalTimer != null) {
-                stopTimer();
-            }
-            startTimer();
+            displayedPixel = -1;
+            progressTimer.start();
             if (!playSongButton.isSelected()) {
                 playSongButton.fire();
             }
@@ -197,11 +287,11 @@ public class ControlPaneController implements Initializable {
 
     private void resumeMedia() {
         player.resume();
-        startTimer();
+        progressTimer.start();
     }
 
     private void setupPauseMediaAction() {
-        player.setOnPause(() -> stopTimer());
+        player.setOnPause(() -> progressTimer.stop());
     }
 
     private void pauseMedia() {
@@ -209,65 +299,51 @@ public class ControlPaneController implements Initializable {
     }
 
     private void playPreviousSong() {
-        if (PlayerContext.globalTimer != null) {
-            stopTimer();
-        }
         if (!player.previous()) {
             player.play();
         }
     }
 
     private void playNextSong() {
-        if (PlayerContext.globalTimer != null) {
-            stopTimer();
-        }
         player.next();
     }
 
-    private void startTimer() {
-        if (PlayerContext.globalTimer != null) {
-            throw new IllegalStateException("Timer not stopped");
+    private void updateProgress() {
+        MediaPlayer mediaPlayer = player.getMediaPlayer();
+        double total = mediaPlayer.getTotalDuration().toMillis();
+        double fraction = total > 0 && Double.isFinite(total) ? mediaPlayer.getCurrentTime().toMillis() / total : 0;
+        if (durationSlider.isValueChanging()) {
+            return;
+        }
+        showSecond(secondAt(mediaPlayer, fraction));
+        int pixel = (int) (fraction * durationSlider.getWidth());
+        if (pixel != displayedPixel) {
+            displayedPixel = pixel;
+            durationSlider.setValue(fraction);
         }
-        PlayerContext.globalTimer = new Timer();
-        TimerTask timerTask = new TimerTask() {
-            @Override
-            public void run() {
-                double currentTime = player.getMediaPlayer().getCurrentTime().toSeconds();
-                double totalDuration = player.getMediaPlayer().getTotalDuration().toSeconds();
-                if (!durationSlider.isValueChanging()) {
-                    double newSliderValue = currentTime / totalDuration;
-                    if (Double.isNaN(newSliderValue)) {
-                        newSliderValue = 0;
-                    }
-                    durationSlider.setValue(newSliderValue);
-                }
-            }
-        };
-        PlayerContext.globalTimer.schedule(timerTask, 0, 1000);
     }
 
-    private void stopTimer() {
-        PlayerContext.globalTimer.cancel();
-        PlayerContext.globalTimer = null;
+    private static int secondAt(MediaPlayer mediaPlayer, double fraction) {
+        return (int) (mediaPlayer.getTotalDuration().toSeconds() * fraction);
+    }
+
+    private void showSecond(int second) {
+        if (second != displayedSecond) {
+            displayedSecond = second;
+            currentDuration.setText(TimeFormat.format(second));
+        }
     }
 
     private void initializeVolumeSlider() {
         volumeSlider.setMin(0);
         volumeSlider.setMax(1);
-        PlayerState state = player.getLoadedState();
-        volumeSlider.setValue(state != null ? state.currentVolume : 0.5);
+        volumeSlider.setValue(player.getCurrentVolume().get());
         player.getCurrentVolume().bind(volumeSlider.valueProperty());
         volumeSlider.styleProperty().bind(Bindings.concat("-fx-gradient-color: linear-gradient(to right, -fx-track-color ")
                 .concat(volumeSlider.valueProperty().multiply(100))
                 .concat("%, #a9a9a9 ")
                 .concat(volumeSlider.valueProperty().multiply(100))
                 .concat("%) !important;"));
-        player.getCurrentVolume().addListener(new InvalidationListener() {
-            @Override
-            public void invalidated(Observable observable) {
-                player.getMediaPlayer().setVolume(player.getCurrentVolume().get());
-            }
-        });
     }
 
     private void sliderHoverActions() {
@@ -315,10 +391,15 @@ public class ControlPaneController implements Initializable {
         durationSlider.setValue(0);
         durationSlider.valueProperty().addListener((observableValue, number, t1) -> {
             double newCurrentDuration = observableValue.getValue().doubleValue();
-            currentDuration.setText(MP3Parser.parseSongLength((int) player.getMediaPlayer().getTotalDuration().multiply(newCurrentDuration).toSeconds()));
-            String style = String.format("-fx-background-color: linear-gradient(to right, -fx-track-color %d%%, #a9a9a9 %d%%) !important;",
-                    (int) (newCurrentDuration * 100), (int) (newCurrentDuration * 100));
-            durationSlider.lookup(".track").setStyle(style);
+            showSecond(secondAt(player.getMediaPlayer(), newCurrentDuration));
+            int percent = Math.max(0, Math.min(100, (int) (newCurrentDuration * 100)));
+            if (durationTrack == null) {
+                durationTrack = durationSlider.lookup(".track");
+            }
+            if (percent != displayedPercent && durationTrack != null) {
+                displayedPercent = percent;
+                durationTrack.setStyle(TRACK_STYLES[percent]);
+            }
         });
         durationSlider.setOnMouseReleased((MouseEvent event) -> player.getMediaPlayer().seek(player.getMediaPlayer().getTotalDuration().multiply(durationSlider.getValue())));
         durationSlider.addEventFilter(MouseEvent.MOUSE_PRESSED, e -> durationSlider.setValueChanging(true));
@@ -335,6 +416,6 @@ public class ControlPaneController implements Initializable {
     }
 
     public void nextButtonAction(ActionEvent actionEvent) {
-        playNextSong();
+        player.skipNext();
     }
 }
@@ -8,15 +8,12 @@ import com.player.mediaplayer.models.PlayList;
 import com.player.mediaplayer.models.Player;
 import com.player.mediaplayer.models.Track;
 import com.player.mediaplayer.utils.MP3Parser;
-import javafx.beans.InvalidationListener;
-import javafx.event.EventHandler;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.TextFieldListCell;
 import javafx.scene.input.MouseButton;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
-import javafx.util.Callback;
 import javafx.util.StringConverter;
 import org.kordamp.ikonli.javafx.FontIcon;
 
@@ -39,7 +36,8 @@ public class PlayListsPaneController implements Initializable {
     }
 
     private final Player player = PlayerContext.player;
-    public ListView playListsListView;
+    public ListView<PlayList> playListsListView;
+    private ContextMenu playListContextMenu = null;
     public Button addPlayListButton;
     public Button importPlayListButton;
 
@@ -54,7 +52,7 @@ public class PlayListsPaneController implements Initializable {
 
     private void addPlayListButtonAction() {
         addPlayListButton.setOnMouseClicked(mouseEvent -> {
-            player.getPlayLists().add(new PlayList("New playlist", null));
+            player.addPlayList(new PlayList("New playlist", null));
         });
     }
 
@@ -75,7 +73,7 @@ public class PlayListsPaneController implements Initializable {
                             throw new RuntimeException(e);
                         }
                     }).toList();
-                    player.getPlayLists().add(new PlayList(jsonPlayList.name, new ArrayList<>(playList)));
+                    player.addPlayList(new PlayList(jsonPlayList.name, new ArrayList<>(playList)));
                 } catch (IOException e) {
                     throw new RuntimeException(e);
                 }
@@ -89,7 +87,10 @@ public class PlayListsPaneController implements Initializable {
     }
 
     private void initializePlayLists() {
-        playListsListView.setCellFactory((Callback<ListView<PlayList>, ListCell<PlayList>>) lv -> {
+        playListsListView.setItems(player.getPlayLists());
+        playListsListView.setOnEditCommit(editEvent -> playListsListView.setEditable(false));
+        playListsListView.setOnEditCancel(editEvent -> playListsListView.setEditable(false));
+        playListsListView.setCellFactory(lv -> {
             TextFieldListCell<PlayList> cell = new TextFieldListCell<>();
             cell.setConverter(new StringConverter<>() {
                 @Override
@@ -99,63 +100,63 @@ public class PlayListsPaneController implements Initializable {
 
                 @Override
                 public PlayList fromString(String string) {
-                    cell.getItem().setName(string);
+                    player.renamePlayList(cell.getItem(), string);
                     return cell.getItem();
                 }
             });
-            ContextMenu playListItemContextMenu = new ContextMenu();
-            MenuItem queueMenuItem = new MenuItem("Add to queue");
-            MenuItem renameMenuItem = new MenuItem("Rename");
-            MenuItem deleteMenuItem = new MenuItem("Delete");
-            MenuItem exportMenuItem = new MenuItem("Export playlist");
-            renameMenuItem.setOnAction(actionEvent -> {
-                playListsListView.setEditable(true);
-                playListsListView.edit(cell.getIndex());
-            });
-            playListsListView.setOnEditCommit((EventHandler<ListView.EditEvent>) editEvent -> playListsListView.setEditable(false));
-            playListsListView.setOnEditCancel((EventHandler<ListView.EditEvent>) editEvent -> playListsListView.setEditable(false));
-            deleteMenuItem.setOnAction(actionEvent -> {
-                PlayList playlist = cell.getItem();
-                player.getPlayLists().remove(playlist);
-            });
-            playListItemContextMenu.getItems().addAll(queueMenuItem, renameMenuItem, deleteMenuItem, exportMenuItem);
-            cell.emptyProperty().addListener((obs, wasEmpty, isNowEmpty) -> {
-                if (isNowEmpty) {
-                    cell.setContextMenu(null);
-                } else {
-                    cell.setContextMenu(playListItemContextMenu);
+            cell.setOnContextMenuRequested(contextMenuEvent -> {
+                if (!cell.isEmpty()) {
+                    getPlayListContextMenu().show(cell, contextMenuEvent.getScreenX(), contextMenuEvent.getScreenY());
                 }
+                contextMenuEvent.consume();
             });
             cell.setOnMouseClicked(mouseEvent -> {
                 if (!cell.isEmpty() && mouseEvent.getButton() == MouseButton.PRIMARY) {
-                    PlayerContext.selectedPlaylist.clear();
-                    PlayerContext.selectedPlaylist.addAll(cell.getItem().getPlayList());
+                    PlayerContext.selectedPlaylist.setSource(cell.getItem().getPlayList());
                     PlayerContext.selectedPlaylistRef = cell.getItem().getPlayList();
                     PlayerContext.selectedPlaylistName.set(cell.getItem().getName().get());
                 }
             });
-            exportMenuItem.setOnAction(actionEvent -> {
-                FileChooser fileChooser = new FileChooser();
-                FileChooser.ExtensionFilter extFilter = new FileChooser.ExtensionFilter("JSON (*.json)", "*.json");
-                fileChooser.getExtensionFilters().add(extFilter);
-                File file = fileChooser.showSaveDialog(new Stage());
-                if (file != null) {
-                    try (final FileWriter fileWriter = new FileWriter(file)) {
-                        PlayList playlist = cell.getItem();
-                        Gson gson = new Gson();
-                        gson.toJson(new JsonPlayList(playlist), fileWriter);
-                    } catch (IOException e) {
-                        throw new RuntimeException(e);
-                    }
-                }
-            });
             return cell;
         });
-        player.getPlayLists().addListener((InvalidationListener) observable -> {
-            playListsListView.getItems().clear();
-            for (PlayList playList : player.getPlayLists()) {
-                playListsListView.getItems().add(playList);
+    }
+
+    private ContextMenu getPlayListContextMenu() {
+        if (playListContextMenu != null) {
+            return playListContextMenu;
+        }
+        playListContextMenu = new ContextMenu();
+        MenuItem queueMenuItem = new MenuItem("Add to queue");
+        MenuItem renameMenuItem = new MenuItem("Rename");
+        MenuItem deleteMenuItem = new MenuItem("Delete");
+        MenuItem exportMenuItem = new MenuItem("Export playlist");
+        queueMenuItem.setOnAction(actionEvent -> player.addToQueue(getContextMenuCell().getItem().getPlayList()));
+        renameMenuItem.setOnAction(actionEvent -> {
+            playListsListView.setEditable(true);
+            playListsListView.edit(getContextMenuCell().getIndex());
+        });
+        deleteMenuItem.setOnAction(actionEvent -> player.removePlayList(getContextMenuCell().getItem()));
+        exportMenuItem.setOnAction(actionEvent -> {
+            PlayList playlist = getContextMenuCell().getItem();
+            FileChooser fileChooser = new FileChooser();
+            FileChooser.ExtensionFilter extFilter = new FileChooser.ExtensionFilter("JSON (*.json)", "*.json");
+            fileChooser.getExtensionFilters().add(extFilter);
+            File file = fileChooser.showSaveDialog(new Stage());
+            if (file != null) {
+                try (final FileWriter fileWriter = new FileWriter(file)) {
+                    Gson gson = new Gson();
+                    gson.toJson(new JsonPlayList(playlist), fileWriter);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
             }
         });
+        playListContextMenu.getItems().addAll(queueMenuItem, renameMenuItem, deleteMenuItem, exportMenuItem);
+        return playListContextMenu;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ListCell<PlayList> getContextMenuCell() {
+        return (ListCell<PlayList>) playListContextMenu.getOwnerNode();
     }
 }
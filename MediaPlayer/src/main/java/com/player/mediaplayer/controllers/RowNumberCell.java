@@ -0,0 +1,11 @@
+package com.player.mediaplayer.controllers;
+
+import javafx.scene.control.TableCell;
+
+public class RowNumberCell<S, T> extends TableCell<S, T> {
+    @Override
+    protected void updateItem(T item, boolean empty) {
+        super.updateItem(item, empty);
+        setText(empty ? null : Integer.toString(getIndex() + 1));
+    }
+}
@@ -0,0 +1,21 @@
+package com.player.mediaplayer.controllers;
+
+import javafx.scene.control.Labeled;
+import org.kordamp.ikonli.IkonHandler;
+import org.kordamp.ikonli.javafx.IkonResolver;
+
+public class TableIcon {
+    private final String glyph;
+    private final String style;
+
+    public TableIcon(String description) {
+        IkonHandler handler = IkonResolver.getInstance().resolve(description);
+        glyph = new String(Character.toChars(handler.resolve(description).getCode()));
+        style = "-fx-font-family: '" + handler.getFontFamily() + "';";
+    }
+
+    public void applyTo(Labeled labeled) {
+        labeled.setStyle(style);
+        labeled.setText(glyph);
+    }
+}
@@ -0,0 +1,50 @@
+package com.player.mediaplayer.models;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public final class ArtworkRef implements Serializable {
+    private final static long serialVersionUID = -5367788087275647497L;
+    private final String filePath;
+    private final long offset;
+    private final int length;
+
+    public ArtworkRef(String filePath, long offset, int length) {
+        this.filePath = filePath;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public boolean isLocated() {
+        return offset >= 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ArtworkRef)) {
+            return false;
+        }
+        ArtworkRef other = (ArtworkRef) o;
+        return offset == other.offset && length == other.length && filePath.equals(other.filePath);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(filePath, offset, length);
+    }
+}
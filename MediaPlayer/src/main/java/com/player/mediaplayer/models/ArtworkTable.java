@@ -0,0 +1,62 @@
+package com.player.mediaplayer.models;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashMap;
+
+public class ArtworkTable implements Serializable {
+    private final static long serialVersionUID = -6745906787981694692L;
+    private final HashMap<String, ArtworkRef> locations = new HashMap<>();
+    private final HashMap<String, Integer> references = new HashMap<>();
+
+    public synchronized String register(String artworkId, ArtworkRef location) {
+        locations.putIfAbsent(artworkId, location);
+        references.merge(artworkId, 1, Integer::sum);
+        return artworkId;
+    }
+
+    public synchronized ArtworkRef locate(String artworkId) {
+        return locations.get(artworkId);
+    }
+
+    public synchronized void recount(Collection<String> artworkIds) {
+        references.clear();
+        for (String artworkId : artworkIds) {
+            if (artworkId != null && locations.containsKey(artworkId)) {
+                references.merge(artworkId, 1, Integer::sum);
+            }
+        }
+    }
+
+    public synchronized void retainAll(Collection<String> artworkIds) {
+        recount(artworkIds);
+        locations.keySet().retainAll(references.keySet());
+    }
+
+    public synchronized int getDistinctImages() {
+        return locations.size();
+    }
+
+    public synchronized int getReferences() {
+        return references.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public synchronized long getDistinctBytes() {
+        return locations.values().stream().mapToLong(ArtworkRef::getLength).sum();
+    }
+
+    public synchronized long getReferencedBytes() {
+        return references.entrySet().stream().mapToLong(entry -> (long) locations.get(entry.getKey()).getLength() * entry.getValue()).sum();
+    }
+
+    public synchronized double getDedupRatio() {
+        return locations.isEmpty() ? 1 : (double) getReferences() / locations.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ArtworkTable[%d references, %d distinct images, %.1f MB stored instead of %.1f MB, dedup ratio %.1f]",
+                getReferences(), getDistinctImages(), getDistinctBytes() / 1024.0 / 1024.0,
+                getReferencedBytes() / 1024.0 / 1024.0, getDedupRatio());
+    }
+}
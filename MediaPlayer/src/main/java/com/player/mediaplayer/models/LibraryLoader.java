@@ -0,0 +1,75 @@
+package com.player.mediaplayer.models;
+
+import com.player.mediaplayer.PlayerContext;
+import com.player.mediaplayer.utils.IntMap;
+import com.player.mediaplayer.utils.StartupTimer;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class LibraryLoader extends Task<Integer> {
+    private final static int BATCH_SIZE = 2000;
+
+    private final Player player;
+    private final StartupTimer startupTimer;
+
+    public LibraryLoader(Player player, StartupTimer startupTimer) {
+        this.player = player;
+        this.startupTimer = startupTimer;
+    }
+
+    @Override
+    protected Integer call() {
+        updateMessage("Loading library");
+        PlayerState state = player.readState();
+        startupTimer.mark("state read");
+        if (state == null) {
+            Platform.runLater(() -> finish(List.of(), List.of()));
+            return 0;
+        }
+        Platform.runLater(() -> {
+            player.applySettings(state);
+            startupTimer.mark("settings");
+        });
+        int total = state.allTracks.size();
+        for (PlayerState.SerializableTrack item : state.allTracks) {
+            player.reserveTrackIds(item.getId());
+        }
+        List<Track> staleTracks = new ArrayList<>();
+        IntMap<Track> tracksById = new IntMap<>(total);
+        Track currentTrack = null;
+        if (state.currentTrackID >= 0 && state.currentTrackID < total) {
+            currentTrack = state.restoreTrack(player, state.allTracks.get(state.currentTrackID), staleTracks);
+            Track restoredTrack = currentTrack;
+            Platform.runLater(() -> {
+                player.showRestoredTrack(restoredTrack);
+                startupTimer.mark("current track");
+            });
+        }
+        for (int start = 0; start < total && !isCancelled(); start += BATCH_SIZE) {
+            int end = Math.min(total, start + BATCH_SIZE);
+            List<Track> batch = new ArrayList<>(end - start);
+            for (int i = start; i < end; ++i) {
+                Track track = i == state.currentTrackID ? currentTrack : state.restoreTrack(player, state.allTracks.get(i), staleTracks);
+                tracksById.put(track.getTrackId(), track);
+                batch.add(track);
+            }
+            Platform.runLater(() -> player.appendRestoredTracks(batch));
+            updateProgress(end, total);
+            updateMessage(String.format("%d/%d tracks", end, total));
+        }
+        List<PlayList> playLists = state.restorePlayLists(tracksById);
+        Platform.runLater(() -> finish(playLists, staleTracks));
+        return total;
+    }
+
+    private void finish(List<PlayList> playLists, List<Track> staleTracks) {
+        player.finishLoading(playLists, staleTracks);
+        startupTimer.mark("interactive");
+        if (PlayerContext.profiling) {
+            System.out.println(startupTimer);
+        }
+    }
+}
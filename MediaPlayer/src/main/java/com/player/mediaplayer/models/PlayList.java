@@ -2,20 +2,20 @@ package com.player.mediaplayer.models;
 
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.List;
 
 public class PlayList {
     private SimpleStringProperty name = new SimpleStringProperty("");
     private int currentTrackID;
-    private ArrayList<Track> playList;
+    private ObservableList<Track> playList;
     public PlayList(String name, ArrayList<Track> playList) {
         this.name.set(name);
-        this.playList = playList;
-        if (this.playList == null) {
-            this.playList = new ArrayList<>();
-        }
+        this.playList = FXCollections.observableList(playList != null ? playList : new ArrayList<>());
         this.currentTrackID = -1;
     }
 
@@ -27,12 +27,12 @@ public class PlayList {
         this.name.set(name);
     }
 
-    public ArrayList<Track> getPlayList() {
+    public ObservableList<Track> getPlayList() {
         return playList;
     }
 
-    public void setPlayList(ArrayList<Track> playList) {
-        this.playList = playList;
+    public void setPlayList(List<Track> playList) {
+        this.playList.setAll(playList);
     }
 
 
@@ -0,0 +1,201 @@
+package com.player.mediaplayer.models;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+
+public class PlayQueue extends ObservableListBase<Track> {
+    private final static int MIN_CAPACITY = 16;
+
+    private Track[] items = new Track[MIN_CAPACITY];
+    private int head = 0;
+    private int size = 0;
+
+    @Override
+    public Track get(int index) {
+        Objects.checkIndex(index, size);
+        return items[slot(index)];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public Track peek() {
+        return size > 0 ? items[head] : null;
+    }
+
+    public void offer(Track track) {
+        add(size, track);
+    }
+
+    public Track poll() {
+        return size > 0 ? remove(0) : null;
+    }
+
+    @Override
+    public void add(int index, Track track) {
+        Objects.checkIndex(index, size + 1);
+        ensureCapacity(size + 1);
+        insertSlot(index);
+        items[slot(index)] = track;
+        beginChange();
+        nextAdd(index, index + 1);
+        endChange();
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Track> tracks) {
+        return addAll(size, tracks);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends Track> tracks) {
+        Objects.checkIndex(index, size + 1);
+        if (tracks.isEmpty()) {
+            return false;
+        }
+        Track[] added = tracks.toArray(new Track[0]);
+        ensureCapacity(size + added.length);
+        int tail = size - index;
+        Track[] moved = new Track[tail];
+        for (int i = 0; i < tail; ++i) {
+            moved[i] = items[slot(index + i)];
+        }
+        for (int i = 0; i < added.length; ++i) {
+            items[slot(index + i)] = added[i];
+        }
+        for (int i = 0; i < tail; ++i) {
+            items[slot(index + added.length + i)] = moved[i];
+        }
+        size += added.length;
+        beginChange();
+        nextAdd(index, index + added.length);
+        endChange();
+        return true;
+    }
+
+    @Override
+    public Track remove(int index) {
+        Objects.checkIndex(index, size);
+        Track removed = items[slot(index)];
+        removeSlot(index);
+        beginChange();
+        nextRemove(index, removed);
+        endChange();
+        return removed;
+    }
+
+    @Override
+    public Track set(int index, Track track) {
+        Objects.checkIndex(index, size);
+        Track replaced = items[slot(index)];
+        items[slot(index)] = track;
+        beginChange();
+        nextSet(index, replaced);
+        endChange();
+        return replaced;
+    }
+
+    public void move(int from, int to) {
+        Objects.checkIndex(from, size);
+        Objects.checkIndex(to, size);
+        if (from == to) {
+            return;
+        }
+        Track track = items[slot(from)];
+        int step = from < to ? 1 : -1;
+        for (int i = from; i != to; i += step) {
+            items[slot(i)] = items[slot(i + step)];
+        }
+        items[slot(to)] = track;
+        int low = Math.min(from, to);
+        int high = Math.max(from, to) + 1;
+        int[] permutation = new int[high - low];
+        for (int i = low; i < high; ++i) {
+            permutation[i - low] = i == from ? to : i + (from < to ? -1 : 1);
+        }
+        beginChange();
+        nextPermutation(low, high, permutation);
+        endChange();
+    }
+
+    @Override
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        Track[] removed = toArray(new Track[0]);
+        Arrays.fill(items, null);
+        head = 0;
+        size = 0;
+        beginChange();
+        nextRemove(0, Arrays.asList(removed));
+        endChange();
+    }
+
+    @Override
+    public boolean setAll(Collection<? extends Track> tracks) {
+        beginChange();
+        try {
+            clear();
+            addAll(tracks);
+        } finally {
+            endChange();
+        }
+        return true;
+    }
+
+    private int slot(int index) {
+        return (head + index) & (items.length - 1);
+    }
+
+    private void insertSlot(int index) {
+        if (index < size / 2) {
+            head = (head - 1) & (items.length - 1);
+            for (int i = 0; i < index; ++i) {
+                items[slot(i)] = items[slot(i + 1)];
+            }
+        } else {
+            for (int i = size; i > index; --i) {
+                items[slot(i)] = items[slot(i - 1)];
+            }
+        }
+        ++size;
+    }
+
+    private void removeSlot(int index) {
+        if (index < size / 2) {
+            for (int i = index; i > 0; --i) {
+                items[slot(i)] = items[slot(i - 1)];
+            }
+            items[head] = null;
+            head = (head + 1) & (items.length - 1);
+        } else {
+            for (int i = index; i < size - 1; ++i) {
+                items[slot(i)] = items[slot(i + 1)];
+            }
+            items[slot(size - 1)] = null;
+        }
+        --size;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= items.length) {
+            return;
+        }
+        int grown = items.length;
+        while (grown < capacity) {
+            grown <<= 1;
+        }
+        Track[] resized = new Track[grown];
+        for (int i = 0; i < size; ++i) {
+            resized[i] = items[slot(i)];
+        }
+        items = resized;
+        head = 0;
+    }
+}
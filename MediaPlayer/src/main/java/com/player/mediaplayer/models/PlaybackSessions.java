@@ -0,0 +1,63 @@
+package com.player.mediaplayer.models;
+
+import com.player.mediaplayer.PlayerContext;
+import javafx.beans.property.SimpleLongProperty;
+import javafx.scene.media.Media;
+import javafx.scene.media.MediaPlayer;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+public class PlaybackSessions {
+    private final Set<MediaPlayer> open = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final SimpleLongProperty allocated = new SimpleLongProperty(0);
+    private final SimpleLongProperty disposed = new SimpleLongProperty(0);
+
+    public MediaPlayer open(Track track) {
+        MediaPlayer mediaPlayer = new MediaPlayer(new Media(track.getFilePath()));
+        open.add(mediaPlayer);
+        allocated.set(allocated.get() + 1);
+        mediaPlayer.setOnError(() -> {
+            if (PlayerContext.profiling) {
+                System.out.println(mediaPlayer.getError());
+            }
+            release(mediaPlayer);
+        });
+        return mediaPlayer;
+    }
+
+    public boolean isOpen(MediaPlayer mediaPlayer) {
+        return mediaPlayer != null && open.contains(mediaPlayer);
+    }
+
+    public void release(MediaPlayer mediaPlayer) {
+        if (mediaPlayer != null && open.remove(mediaPlayer)) {
+            mediaPlayer.dispose();
+            disposed.set(disposed.get() + 1);
+        }
+    }
+
+    public void releaseAll() {
+        for (MediaPlayer mediaPlayer : open.toArray(new MediaPlayer[0])) {
+            release(mediaPlayer);
+        }
+    }
+
+    public SimpleLongProperty getAllocated() {
+        return allocated;
+    }
+
+    public SimpleLongProperty getDisposed() {
+        return disposed;
+    }
+
+    public int getLive() {
+        return open.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Media players: %d allocated, %d disposed, %d live", allocated.get(), disposed.get(), getLive());
+    }
+}
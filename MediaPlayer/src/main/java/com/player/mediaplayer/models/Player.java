@@ -2,35 +2,70 @@ package com.player.mediaplayer.models;
 
 import com.player.mediaplayer.PlayerContext;
 import com.player.mediaplayer.controllers.ContentPaneController;
+import com.player.mediaplayer.utils.LibraryImporter;
+import com.player.mediaplayer.utils.SearchIndex;
+import com.player.mediaplayer.utils.SearchService;
+import com.player.mediaplayer.utils.ShuffleOrder;
+import com.player.mediaplayer.utils.StartupTimer;
+import com.player.mediaplayer.utils.StateFile;
+import com.player.mediaplayer.utils.StateJournal;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleLongProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
-import javafx.scene.media.Media;
 import javafx.scene.media.MediaPlayer;
+import javafx.util.Duration;
 
 import java.io.*;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 public class Player {
     private final int PLAY_PREVIOUS_THRESHOLD = 3;
+    private final double PREROLL_SECONDS = 5;
+    private final double SETTLE_MILLIS = 150;
     private final String APP_DATA_NAME = "data";
+    private final String STATE_FILE_NAME = "library.state";
+    private final String JOURNAL_NAME = "library.journal";
+    private final long COMPACTION_THRESHOLD = 1024 * 1024;
+    private final long COMPACTION_CHECK_SECONDS = 30;
+    private final String TAG_CACHE_NAME = "tags";
+    private final static Predicate<Track> ALL_TRACKS = track -> true;
     private ObservableList<Track> allTracks;
-    private ObservableList<Track> currentPlayList;
+    private final HashMap<String, Track> tracksByPath = new HashMap<>();
+    private PlaylistView currentPlayList;
     private ObservableList<PlayList> playLists;
-    private Queue<Track> queue = new LinkedList<>();
+    private final PlayQueue queue = new PlayQueue();
     private Runnable onEndOfMediaRunnable = null;
     private Runnable onPause = null;
     private Runnable onPlay = null;
     private int currentTrackID;
+    private final AtomicInteger nextTrackId = new AtomicInteger(1);
     private SimpleObjectProperty<Track> currentTrack;
     private SimpleDoubleProperty currentVolume;
     private SimpleBooleanProperty isShuffling;
@@ -38,83 +73,509 @@ public class Player {
 
     private SimpleBooleanProperty onlyFavorites;
     private SimpleObjectProperty<Predicate<Track>> currentTrackFilter;
+    private SimpleStringProperty searchQuery;
+    private SearchIndex searchIndex;
+    private SearchService searchService;
+    private ObservableList<Track> searchResults = null;
     private PlayerState state = null;
+    private SimpleObjectProperty<PlayerState> loadedState = new SimpleObjectProperty<>();
+    private SimpleObjectProperty<LibraryLoader> libraryLoader = new SimpleObjectProperty<>();
+    private volatile boolean loading = false;
+    private boolean changedWhileLoading = false;
+    private TagCache tagCache = new TagCache();
+    private SimpleLongProperty tagsRevision = new SimpleLongProperty(0);
+    private final PlaybackSessions sessions = new PlaybackSessions();
     private MediaPlayer mediaPlayer = null;
+    private Track mediaPlayerTrack = null;
+    private MediaPlayer preparedMediaPlayer = null;
+    private Track preparedTrack = null;
+    private Track upcomingTrack = null;
+    private int upcomingTrackID = -1;
+    private boolean upcomingFromQueue = false;
+    private boolean upcomingShuffled = false;
+    private final ShuffleOrder shuffleOrder = new ShuffleOrder();
+    private boolean shuffleOrderStale = true;
+    private long endOfMediaNanos = 0;
+    private PauseTransition settle = null;
+    private SimpleDoubleProperty lastTransitionGap = new SimpleDoubleProperty(Double.NaN);
+    private StateJournal journal = null;
+    private boolean journaling = false;
+    private long snapshotGeneration = 0;
+    private final ScheduledExecutorService compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "state-compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     public Player() {
         this.allTracks = FXCollections.observableArrayList();
-        this.currentPlayList = FXCollections.observableArrayList();
+        this.currentPlayList = new PlaylistView(allTracks);
         this.currentTrackID = -1;
         this.currentVolume = new SimpleDoubleProperty(0.5);
         this.isShuffling = new SimpleBooleanProperty(false);
         this.isRepeating = new SimpleBooleanProperty(false);
         this.onlyFavorites = new SimpleBooleanProperty(false);
-        this.currentTrackFilter = new SimpleObjectProperty<>(track -> true);
+        this.currentTrackFilter = new SimpleObjectProperty<>(ALL_TRACKS);
         this.currentTrack = new SimpleObjectProperty<>();
         this.onlyFavorites.addListener((observableValue, aBoolean, t1) -> filterPlayList());
+        this.isShuffling.addListener(observable -> {
+            shuffleOrderStale = true;
+            discardUpcoming();
+        });
+        this.isRepeating.addListener(observable -> discardUpcoming());
+        this.currentPlayList.addListener((ListChangeListener<Track>) change -> {
+            patchShuffleOrder(change);
+            change.reset();
+            shiftCurrentTrackID(change);
+            discardUpcoming();
+        });
         this.currentTrackFilter.addListener((observableValue, trackPredicate, t1) -> filterPlayList());
+        this.searchQuery = new SimpleStringProperty("");
+        this.searchQuery.addListener((observableValue, oldQuery, newQuery) -> searchPlayList(newQuery));
+        this.searchIndex = new SearchIndex(allTracks);
+        this.searchService = new SearchService(searchIndex);
+        this.allTracks.addListener((InvalidationListener) observable -> searchService.invalidate());
+        this.allTracks.addListener((ListChangeListener<Track>) change -> {
+            while (change.next()) {
+                for (Track track : change.getRemoved()) {
+                    tracksByPath.remove(track.getFilePath(), track);
+                }
+                for (Track track : change.getAddedSubList()) {
+                    tracksByPath.putIfAbsent(track.getFilePath(), track);
+                }
+            }
+        });
         this.playLists = FXCollections.observableArrayList();
-        loadState();
+        this.isShuffling.addListener(observable -> journalSettings());
+        this.isRepeating.addListener(observable -> journalSettings());
+        this.currentVolume.addListener(observable -> journalSettings());
+        this.currentVolume.addListener(observable -> {
+            if (mediaPlayer != null) {
+                mediaPlayer.setVolume(currentVolume.get());
+            }
+        });
+        this.currentTrack.addListener(observable -> journalSettings());
     }
 
     public PlayerState getLoadedState() {
-        return state;
+        return loadedState.get();
+    }
+
+    public SimpleObjectProperty<PlayerState> getLoadedStateProperty() {
+        return loadedState;
+    }
+
+    public SimpleObjectProperty<LibraryLoader> getLibraryLoader() {
+        return libraryLoader;
+    }
+
+    public TagCache getTagCache() {
+        return tagCache;
+    }
+
+    public SimpleLongProperty getTagsRevision() {
+        return tagsRevision;
     }
 
-    private void loadState() {
-        try
-        {
-            FileInputStream file = new FileInputStream(APP_DATA_NAME);
-            ObjectInputStream in = new ObjectInputStream(file);
-            PlayerState state = (PlayerState) in.readObject();
-            in.close();
-            file.close();
-            this.state = state;
+    public void refreshTags(List<Track> staleTracks) {
+        if (staleTracks.isEmpty()) {
+            return;
+        }
+        HashMap<String, Track> tracksByPath = new HashMap<>();
+        for (Track track : staleTracks) {
+            tracksByPath.put(track.getFilePath(), track);
+        }
+        List<Path> files = staleTracks.stream().map(track -> Path.of(URI.create(track.getFilePath()))).toList();
+        LibraryImporter importer = new LibraryImporter(files, tagCache, parsedTracks -> {
+            for (Track parsedTrack : parsedTracks) {
+                Track track = tracksByPath.get(parsedTrack.getFilePath());
+                if (track != null) {
+                    track.updateTags(parsedTrack);
+                }
+            }
+            searchIndex.reindex(parsedTracks.stream().map(parsedTrack -> tracksByPath.get(parsedTrack.getFilePath())).filter(Objects::nonNull).toList());
+            searchService.invalidate();
+            tagsRevision.set(tagsRevision.get() + 1);
+        });
+        Thread thread = new Thread(importer, "tag-refresh");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void loadTagCache() {
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(TAG_CACHE_NAME)))) {
+            tagCache = (TagCache) in.readObject();
+            PlayerContext.artworkStore.setArtworkTable((ArtworkTable) in.readObject());
         } catch (IOException | ClassNotFoundException e) {
             System.out.println(e);
         }
     }
 
-    public void applyState() {
-        if (state != null) {
-            state.initPlayer(this);
-            pause();
+    private void saveTagCache() {
+        tagCache.retainAll(allTracks.stream().map(Track::getFilePath).toList());
+        for (Track track : allTracks) {
+            if (!tagCache.contains(track.getFilePath())) {
+                tagCache.put(track);
+            }
+        }
+        ArtworkTable artworkTable = PlayerContext.artworkStore.getArtworkTable();
+        artworkTable.retainAll(allTracks.stream().map(Track::getSongArtworkId).toList());
+        try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(TAG_CACHE_NAME)))) {
+            out.writeObject(tagCache);
+            out.writeObject(artworkTable);
+        } catch (IOException e) {
+            System.out.println(e);
         }
     }
 
-    public void saveState() {
+    PlayerState readState() {
+        loadTagCache();
+        PlayerState state = null;
+        try {
+            if (Files.exists(Path.of(STATE_FILE_NAME))) {
+                state = StateFile.read(Path.of(STATE_FILE_NAME));
+            } else if (Files.exists(Path.of(APP_DATA_NAME))) {
+                state = loadLegacyState();
+            }
+            PlayerState replayed = state != null ? state : new PlayerState();
+            replayed.replayJournal(Path.of(JOURNAL_NAME));
+            if (!replayed.allTracks.isEmpty()) {
+                state = replayed;
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            System.out.println(e);
+        }
+        return state;
+    }
+
+    private PlayerState loadLegacyState() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(APP_DATA_NAME)))) {
+            return (PlayerState) in.readObject();
+        }
+    }
+
+    private void openJournal() {
+        if (journal != null) {
+            return;
+        }
+        snapshotGeneration = state != null ? state.journalGeneration : 0;
         try {
-            FileOutputStream file = new FileOutputStream(APP_DATA_NAME);
-            ObjectOutputStream out = new ObjectOutputStream(file);
-            out.writeObject(new PlayerState(this));
-            out.close();
-            file.close();
-        } catch(IOException e) {
+            journal = new StateJournal(Path.of(JOURNAL_NAME), snapshotGeneration);
+        } catch (IOException e) {
             System.out.println(e);
+            return;
+        }
+        compactor.scheduleWithFixedDelay(() -> {
+            if (journal.getSize() > COMPACTION_THRESHOLD) {
+                Platform.runLater(this::compactState);
+            }
+        }, COMPACTION_CHECK_SECONDS, COMPACTION_CHECK_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void journal(Consumer<StateJournal> record) {
+        if (loading) {
+            changedWhileLoading = true;
+        } else if (journaling && journal != null) {
+            record.accept(journal);
         }
     }
 
+    private void journalSettings() {
+        if (loading) {
+            return;
+        }
+        journal(journal -> journal.settingsChanged(currentTrackID, currentVolume.get(), isShuffling.get(), isRepeating.get()));
+    }
+
+    private PlayerState snapshot() {
+        PlayerState snapshot = new PlayerState(this);
+        if (journal != null) {
+            snapshot.journalGeneration = journal.rotate();
+        }
+        return snapshot;
+    }
+
+    private void compactState() {
+        PlayerState snapshot = snapshot();
+        compactor.execute(() -> writeSnapshot(snapshot));
+    }
+
+    private synchronized void writeSnapshot(PlayerState snapshot) {
+        if (snapshot.journalGeneration < snapshotGeneration) {
+            return;
+        }
+        try {
+            StateFile.writeAtomically(Path.of(STATE_FILE_NAME), snapshot);
+            snapshotGeneration = snapshot.journalGeneration;
+            if (journal != null) {
+                journal.deleteBefore(snapshotGeneration);
+            }
+            Files.deleteIfExists(Path.of(APP_DATA_NAME));
+        } catch (IOException e) {
+            System.out.println(e);
+        }
+    }
+
+    public void applyState() {
+        journaling = false;
+        try {
+            if (state == null) {
+                state = readState();
+            }
+            if (state != null) {
+                loadedState.set(state);
+                state.initPlayer(this);
+                cueCurrentTrack();
+            }
+        } finally {
+            openJournal();
+            journaling = true;
+        }
+    }
+
+    public LibraryLoader loadLibrary(StartupTimer startupTimer) {
+        loading = true;
+        LibraryLoader loader = new LibraryLoader(this, startupTimer);
+        libraryLoader.set(loader);
+        Thread thread = new Thread(loader, "library-load");
+        thread.setDaemon(true);
+        thread.start();
+        return loader;
+    }
+
+    void applySettings(PlayerState state) {
+        this.state = state;
+        PlayerContext.selectedPlaylistRef = allTracks;
+        setIsShuffling(state.isShuffling);
+        setIsRepeating(state.isRepeating);
+        loadedState.set(state);
+    }
+
+    void showRestoredTrack(Track track) {
+        currentTrackID = state.currentTrackID;
+        currentTrack.set(track);
+        cueCurrentTrack();
+    }
+
+    void appendRestoredTracks(List<Track> tracks) {
+        allTracks.addAll(tracks);
+    }
+
+    void finishLoading(List<PlayList> restoredPlayLists, List<Track> staleTracks) {
+        playLists.addAll(0, restoredPlayLists);
+        refreshTags(staleTracks);
+        loading = false;
+        openJournal();
+        journaling = true;
+        if (changedWhileLoading) {
+            changedWhileLoading = false;
+            compactState();
+        }
+        libraryLoader.set(null);
+    }
+
+    public void saveState() {
+        if (loading) {
+            return;
+        }
+        writeSnapshot(snapshot());
+        saveTagCache();
+    }
+
+    private void searchPlayList(String query) {
+        if (query == null || query.isBlank()) {
+            searchService.cancel();
+            searchResults = null;
+            filterPlayList();
+            return;
+        }
+        searchService.submit(query, results -> {
+            searchResults = FXCollections.observableList(results);
+            filterPlayList();
+        });
+    }
+
     private void filterPlayList() {
-        FilteredList<Track> searchedTracks = new FilteredList(allTracks);
-        searchedTracks.setPredicate(track -> onlyFavorites.get() ? track.getSongLiked() && currentTrackFilter.get().test(track) : currentTrackFilter.get().test(track));
-        PlayerContext.selectedPlaylist.clear();
-        PlayerContext.selectedPlaylist.setAll(searchedTracks);
+        if (searchResults == null && !onlyFavorites.get() && currentTrackFilter.get() == ALL_TRACKS) {
+            PlayerContext.selectedPlaylist.setSource(allTracks);
+            return;
+        }
+        ObservableList<Track> tracks = searchResults != null ? searchResults : allTracks;
+        Predicate<Track> filter = currentTrackFilter.get();
+        boolean favorites = onlyFavorites.get();
+        PlayerContext.selectedPlaylist.setSource(new FilteredList<>(tracks, track -> (!favorites || track.getSongLiked()) && filter.test(track)));
     }
 
-    public ObservableList<Track> getCurrentPlayList() {
+    public SearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    public SimpleStringProperty getSearchQuery() {
+        return searchQuery;
+    }
+
+    public void setSearchQuery(String query) {
+        searchQuery.set(query);
+    }
+
+    public PlaylistView getCurrentPlayList() {
         return currentPlayList;
     }
 
+    void assignTrackId(Track track) {
+        if (track.getTrackId() == 0) {
+            track.setTrackId(nextTrackId.getAndIncrement());
+        }
+    }
+
+    void restoreTrackId(Track track, int trackId) {
+        if (trackId == 0) {
+            assignTrackId(track);
+            return;
+        }
+        track.setTrackId(trackId);
+        reserveTrackIds(trackId);
+    }
+
+    void reserveTrackIds(int lastTrackId) {
+        nextTrackId.accumulateAndGet(lastTrackId + 1, Math::max);
+    }
+
     public void addTrack(Track mp3Track) {
-        allTracks.add(mp3Track);
-        if (PlayerContext.selectedPlaylistName.get() == "All tracks") {
-            PlayerContext.selectedPlaylist.add(mp3Track);
+        addTracks(List.of(mp3Track));
+    }
+
+    public void addTracks(Collection<Track> tracks) {
+        if (tracks.isEmpty()) {
+            return;
+        }
+        HashSet<String> paths = new HashSet<>();
+        List<Track> added = new ArrayList<>(tracks.size());
+        for (Track track : tracks) {
+            if (!tracksByPath.containsKey(track.getFilePath()) && paths.add(track.getFilePath())) {
+                added.add(track);
+            }
+        }
+        if (added.isEmpty()) {
+            return;
+        }
+        added.forEach(this::assignTrackId);
+        allTracks.addAll(added);
+        journal(journal -> journal.tracksAdded(added.stream().map(PlayerState.SerializableTrack::new).toList()));
+    }
+
+    private List<Track> libraryTracks(Collection<Track> tracks) {
+        addTracks(tracks);
+        List<Track> libraryTracks = new ArrayList<>(tracks.size());
+        for (Track track : tracks) {
+            libraryTracks.add(tracksByPath.get(track.getFilePath()));
+        }
+        return libraryTracks;
+    }
+
+    public void removeTrack(Track track) {
+        removeTracks(List.of(track));
+    }
+
+    public void removeTracks(Collection<Track> tracks) {
+        Set<Track> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        removed.addAll(tracks);
+        List<String> removedPaths = new ArrayList<>(removed.size());
+        for (Track track : allTracks) {
+            if (removed.contains(track)) {
+                removedPaths.add(track.getFilePath());
+            }
+        }
+        if (removedPaths.isEmpty()) {
+            return;
+        }
+        allTracks.removeAll(removed);
+        if (searchResults != null) {
+            searchResults.removeAll(removed);
+        }
+        for (PlayList playList : playLists) {
+            playList.getPlayList().removeAll(removed);
+        }
+        journal(journal -> journal.tracksRemoved(removedPaths));
+    }
+
+    public void removeTrackFrom(List<Track> tracks, Track track) {
+        if (tracks == queue) {
+            int index = queue.indexOf(track);
+            if (index >= 0) {
+                removeFromQueue(index);
+            }
+            return;
+        }
+        if (tracks == allTracks) {
+            removeTrack(track);
+            return;
+        }
+        for (PlayList playList : playLists) {
+            if (playList.getPlayList() == tracks) {
+                removeFromPlayList(playList, track);
+                return;
+            }
+        }
+        tracks.remove(track);
+    }
+
+    public void setTrackLiked(Track track, boolean liked) {
+        track.setSongLiked(liked);
+        journal(journal -> journal.trackLiked(track.getFilePath(), liked));
+    }
+
+    public void addPlayList(PlayList playList) {
+        playList.setPlayList(libraryTracks(playList.getPlayList()));
+        playLists.add(playList);
+        journal(journal -> journal.playListAdded(playList.getName().get(), playList.getPlayList().stream().map(Track::getFilePath).toList()));
+    }
+
+    public void removePlayList(PlayList playList) {
+        int index = playLists.indexOf(playList);
+        if (index >= 0) {
+            playLists.remove(index);
+            journal(journal -> journal.playListRemoved(index));
+        }
+    }
+
+    public void renamePlayList(PlayList playList, String name) {
+        playList.setName(name);
+        int index = playLists.indexOf(playList);
+        if (index >= 0) {
+            journal(journal -> journal.playListRenamed(index, name));
+        }
+    }
+
+    public void addToPlayList(PlayList playList, Track track) {
+        addToPlayList(playList, List.of(track));
+    }
+
+    public void addToPlayList(PlayList playList, Collection<Track> tracks) {
+        if (tracks.isEmpty()) {
+            return;
+        }
+        List<Track> added = libraryTracks(tracks);
+        playList.getPlayList().addAll(added);
+        int index = playLists.indexOf(playList);
+        if (index >= 0) {
+            List<String> paths = added.stream().map(Track::getFilePath).toList();
+            journal(journal -> journal.playListTracksAdded(index, paths));
+        }
+    }
+
+    public void removeFromPlayList(PlayList playList, Track track) {
+        if (playList.getPlayList().remove(track)) {
+            int index = playLists.indexOf(playList);
+            if (index >= 0) {
+                journal(journal -> journal.playListTrackRemoved(index, track.getFilePath()));
+            }
         }
     }
 
     public void setCurrentPlayList(List<Track> tracks) {
-        currentPlayList.clear();
-        currentPlayList.setAll(tracks);
+        shuffleOrderStale = true;
+        currentPlayList.setSource(tracks instanceof ObservableList<Track> observable ? observable : FXCollections.observableList(tracks));
         currentTrackID = 0;
     }
 
@@ -159,23 +620,183 @@ public class Player {
     }
 
     public void play() {
-        if (mediaPlayer != null) {
-            mediaPlayer.stop();
-        }
         if (currentTrackID == -1) {
             throw new IllegalStateException("Nothing to play");
         }
-        Track track = currentTrack.get();
-        Media media = new Media(track.getFilePath());
-        mediaPlayer = new MediaPlayer(media);
-        mediaPlayer.setVolume(currentVolume.get());
         if (onEndOfMediaRunnable == null) {
             throw new IllegalStateException("On end of media action is not set up");
         }
-        mediaPlayer.setOnEndOfMedia(onEndOfMediaRunnable);
-        mediaPlayer.setOnPlaying(onPlay);
-        mediaPlayer.setOnPaused(onPause);
-        mediaPlayer.play();
+        Track track = currentTrack.get();
+        if (track == mediaPlayerTrack && sessions.isOpen(mediaPlayer)) {
+            mediaPlayer.seek(Duration.ZERO);
+            mediaPlayer.play();
+            return;
+        }
+        sessions.release(mediaPlayer);
+        if (preparedMediaPlayer != null && preparedTrack == track) {
+            mediaPlayer = preparedMediaPlayer;
+            preparedMediaPlayer = null;
+            preparedTrack = null;
+        } else {
+            discardPrepared();
+            mediaPlayer = sessions.open(track);
+        }
+        mediaPlayerTrack = track;
+        MediaPlayer player = mediaPlayer;
+        player.setVolume(currentVolume.get());
+        player.setOnEndOfMedia(() -> {
+            endOfMediaNanos = System.nanoTime();
+            onEndOfMediaRunnable.run();
+        });
+        player.setOnPlaying(() -> {
+            if (endOfMediaNanos != 0) {
+                lastTransitionGap.set((System.nanoTime() - endOfMediaNanos) / 1e6);
+                endOfMediaNanos = 0;
+            }
+            if (onPlay != null) {
+                onPlay.run();
+            }
+        });
+        player.setOnPaused(onPause);
+        player.currentTimeProperty().addListener((observableValue, oldTime, time) -> {
+            if (player == mediaPlayer && preparedMediaPlayer == null
+                    && player.getTotalDuration().toSeconds() - time.toSeconds() <= PREROLL_SECONDS) {
+                prepareUpcoming();
+            }
+        });
+        player.play();
+    }
+
+    private void prepareUpcoming() {
+        resolveUpcoming();
+        if (upcomingTrack == null || upcomingTrack == currentTrack.get()) {
+            return;
+        }
+        preparedTrack = upcomingTrack;
+        preparedMediaPlayer = sessions.open(preparedTrack);
+    }
+
+    private void discardPrepared() {
+        if (preparedMediaPlayer != null) {
+            sessions.release(preparedMediaPlayer);
+            preparedMediaPlayer = null;
+            preparedTrack = null;
+        }
+    }
+
+    private void discardUpcoming() {
+        upcomingTrack = null;
+        discardPrepared();
+    }
+
+    private void resolveUpcoming() {
+        if (upcomingTrack != null) {
+            return;
+        }
+        upcomingFromQueue = false;
+        upcomingShuffled = false;
+        upcomingTrackID = currentTrackID;
+        if (isRepeating.get()) {
+            upcomingTrack = currentTrack.get();
+        } else if (!queue.isEmpty()) {
+            upcomingFromQueue = true;
+            upcomingTrack = queue.peek();
+        } else if (!currentPlayList.isEmpty()) {
+            if (isShuffling.get() && currentPlayList.size() > 1) {
+                syncShuffleOrder();
+                upcomingShuffled = true;
+                upcomingTrackID = shuffleOrder.peekNext();
+            } else {
+                upcomingTrackID = currentTrackID >= currentPlayList.size() - 1 ? 0 : currentTrackID + 1;
+            }
+            upcomingTrack = currentPlayList.get(upcomingTrackID);
+        }
+    }
+
+    private void syncShuffleOrder() {
+        if (shuffleOrderStale || shuffleOrder.size() != currentPlayList.size()) {
+            shuffleOrder.reset(currentPlayList.size(), currentTrackID);
+            shuffleOrderStale = false;
+        } else if (shuffleOrder.current() != currentTrackID) {
+            shuffleOrder.select(currentTrackID);
+        }
+    }
+
+    private void patchShuffleOrder(ListChangeListener.Change<? extends Track> change) {
+        while (change.next()) {
+            if (shuffleOrderStale) {
+                continue;
+            }
+            if (change.wasPermutated() || change.wasUpdated()) {
+                shuffleOrderStale = true;
+                continue;
+            }
+            if (change.wasRemoved()) {
+                shuffleOrder.removed(change.getFrom(), change.getRemovedSize());
+            }
+            if (change.wasAdded()) {
+                shuffleOrder.inserted(change.getFrom(), change.getAddedSize());
+            }
+        }
+    }
+
+    private void shiftCurrentTrackID(ListChangeListener.Change<? extends Track> change) {
+        if (currentTrackID < 0) {
+            return;
+        }
+        while (change.next()) {
+            if (change.wasPermutated()) {
+                if (currentTrackID >= change.getFrom() && currentTrackID < change.getTo()) {
+                    currentTrackID = change.getPermutation(currentTrackID);
+                }
+                continue;
+            }
+            if (change.wasUpdated()) {
+                continue;
+            }
+            int from = change.getFrom();
+            if (change.wasRemoved()) {
+                if (currentTrackID >= from + change.getRemovedSize()) {
+                    currentTrackID -= change.getRemovedSize();
+                } else if (currentTrackID >= from) {
+                    currentTrackID = from - 1;
+                }
+            }
+            if (change.wasAdded() && from <= currentTrackID) {
+                currentTrackID += change.getAddedSize();
+            }
+        }
+        int size = currentPlayList.size();
+        if (size == 0) {
+            currentTrackID = -1;
+        } else if (currentTrackID < 0) {
+            currentTrackID = size - 1;
+        } else if (currentTrackID >= size) {
+            currentTrackID = size - 1;
+        }
+    }
+
+    public Track getUpcomingTrack() {
+        resolveUpcoming();
+        return upcomingTrack;
+    }
+
+    public PlaybackSessions getPlaybackSessions() {
+        return sessions;
+    }
+
+    public void releaseMedia() {
+        discardPrepared();
+        sessions.releaseAll();
+        mediaPlayer = null;
+        mediaPlayerTrack = null;
+        if (onPause != null) {
+            onPause.run();
+        }
+    }
+
+    public SimpleDoubleProperty getLastTransitionGap() {
+        return lastTransitionGap;
     }
 
     public void pause() {
@@ -192,6 +813,39 @@ public class Player {
         mediaPlayer.play();
     }
 
+    public void requestPlay() {
+        if (mediaPlayerTrack == currentTrack.get() && sessions.isOpen(mediaPlayer)) {
+            return;
+        }
+        if (settle == null) {
+            settle = new PauseTransition(Duration.millis(SETTLE_MILLIS));
+            settle.setOnFinished(actionEvent -> {
+                if (mediaPlayerTrack != currentTrack.get() || !sessions.isOpen(mediaPlayer)) {
+                    play();
+                }
+            });
+        }
+        settle.playFromStart();
+    }
+
+    private void cueCurrentTrack() {
+        if (settle != null) {
+            settle.stop();
+        }
+        if (mediaPlayerTrack != currentTrack.get() || !sessions.isOpen(mediaPlayer)) {
+            play();
+        }
+        pause();
+    }
+
+    public void skipNext() {
+        Track track = currentTrack.get();
+        findNextTrack();
+        if (currentTrack.get() == track) {
+            play();
+        }
+    }
+
     public Boolean previous() {
         if (mediaPlayer == null) {
             throw new IllegalStateException("MediaPlayer does not exist");
@@ -199,48 +853,53 @@ public class Player {
         if (!queue.isEmpty()) {
             return false;
         }
-        if (mediaPlayer.getCurrentTime().toSeconds() < PLAY_PREVIOUS_THRESHOLD && currentTrackID > 0) {
-            --currentTrackID;
-            currentTrack.set(currentPlayList.get(currentTrackID));
-            return true;
+        boolean pending = mediaPlayerTrack != currentTrack.get();
+        if (!pending && mediaPlayer.getCurrentTime().toSeconds() >= PLAY_PREVIOUS_THRESHOLD) {
+            return false;
+        }
+        int previousTrackID = -1;
+        if (isShuffling.get() && currentPlayList.size() > 1) {
+            syncShuffleOrder();
+            previousTrackID = shuffleOrder.previous();
+        } else if (currentTrackID > 0 && currentTrackID <= currentPlayList.size()) {
+            previousTrackID = currentTrackID - 1;
+        }
+        if (previousTrackID < 0) {
+            return false;
         }
-        return false;
+        currentTrackID = previousTrackID;
+        upcomingTrack = null;
+        currentTrack.set(currentPlayList.get(currentTrackID));
+        return true;
     }
 
     private void findNextTrack() {
-        if (isRepeating.get()) {
+        resolveUpcoming();
+        Track track = upcomingTrack;
+        if (track == null) {
             return;
         }
-
-        int nextTrackID = currentTrackID;
-        if (isShuffling.get() && !queue.isEmpty()) {
-            if (currentPlayList.size() < 2) {
-                return;
-            }
-            do {
-                nextTrackID = ThreadLocalRandom.current().nextInt(0, currentPlayList.size());
-            } while (nextTrackID == currentTrackID);
+        if (upcomingFromQueue) {
+            queue.poll();
         } else {
-            if (!queue.isEmpty()) {
-                currentTrack.set(queue.poll());
-                return;
-            }
-            if (currentTrackID >= currentPlayList.size() - 1) {
-                nextTrackID = 0;
-            } else {
-                ++nextTrackID;
+            if (upcomingShuffled) {
+                shuffleOrder.next();
             }
+            currentTrackID = upcomingTrackID;
         }
-        currentTrackID = nextTrackID;
-        currentTrack.set(currentPlayList.get(currentTrackID));
+        upcomingTrack = null;
+        currentTrack.set(track);
     }
 
     public void next() {
         if (mediaPlayer == null) {
             throw new IllegalStateException("MediaPlayer does not exist");
         }
+        Track track = currentTrack.get();
         findNextTrack();
-        play();
+        if (currentTrack.get() == track || mediaPlayerTrack != currentTrack.get()) {
+            play();
+        }
     }
 
     public MediaPlayer getMediaPlayer() {
@@ -258,6 +917,7 @@ public class Player {
     }
 
     public void setCurrentTrack(Track track) {
+        upcomingTrack = null;
         currentTrack.set(track);
     }
 
@@ -289,11 +949,27 @@ public class Player {
         this.playLists.setAll(playLists);
     }
 
-    public Queue<Track> getQueue() {
+    public PlayQueue getQueue() {
         return queue;
     }
     public void addToQueue(Track track) {
-        queue.add(track);
+        queue.offer(track);
+        discardUpcoming();
+    }
+
+    public void addToQueue(List<Track> tracks) {
+        queue.addAll(tracks);
+        discardUpcoming();
+    }
+
+    public void removeFromQueue(int index) {
+        queue.remove(index);
+        discardUpcoming();
+    }
+
+    public void moveInQueue(int from, int to) {
+        queue.move(from, to);
+        discardUpcoming();
     }
 
     public int getCurrentTrackID() {
@@ -301,6 +977,7 @@ public class Player {
     }
     public void setCurrentTrackID(int currentTrackID) {
         this.currentTrackID = currentTrackID;
+        this.upcomingTrack = null;
         this.currentTrack.set(currentPlayList.get(currentTrackID));
     }
 }
@@ -1,86 +1,388 @@
 package com.player.mediaplayer.models;
 
-import com.mpatric.mp3agic.InvalidDataException;
-import com.mpatric.mp3agic.UnsupportedTagException;
 import com.player.mediaplayer.PlayerContext;
-import com.player.mediaplayer.utils.MP3Parser;
-import javafx.collections.FXCollections;
+import com.player.mediaplayer.utils.IntMap;
+import com.player.mediaplayer.utils.StateJournal;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.net.URI;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.function.Function;
 
 public class PlayerState implements Serializable {
-    private class SerializableTrack implements Serializable {
+    private final static long serialVersionUID = -776864831193421983L;
+
+    public static class SerializableTrack implements Serializable {
+        private final static long serialVersionUID = -2258053367793664246L;
         private String path;
         private Boolean songLiked;
+        private String songName;
+        private String songArtist;
+        private String songAlbum;
+        private String songArtworkId;
+        private int id;
+        private int songDurationMillis;
         public SerializableTrack(String path, Boolean songLiked) {
             this.path = path;
             this.songLiked = songLiked;
         }
+        public SerializableTrack(Track track) {
+            this(track.getFilePath(), track.getSongLiked());
+            this.id = track.getTrackId();
+            setTags(track.getSongName(), track.getSongArtist(), track.getSongAlbum(), track.getSongDurationMillis(), track.getSongArtworkId());
+        }
+        public void setTags(String songName, String songArtist, String songAlbum, int songDurationMillis, String songArtworkId) {
+            this.songName = songName;
+            this.songArtist = songArtist;
+            this.songAlbum = songAlbum;
+            this.songDurationMillis = songDurationMillis;
+            this.songArtworkId = songArtworkId;
+        }
+        public int getId() {
+            return id;
+        }
+        public void setId(int id) {
+            this.id = id;
+        }
+        public boolean hasTags() {
+            return songName != null;
+        }
         public String getPath() {
             return path;
         }
         public Boolean getSongLiked() {
             return songLiked;
         }
+        public String getSongName() {
+            return songName;
+        }
+        public String getSongArtist() {
+            return songArtist;
+        }
+        public String getSongAlbum() {
+            return songAlbum;
+        }
+        public int getSongDurationMillis() {
+            return songDurationMillis;
+        }
+        public String getSongArtworkId() {
+            return songArtworkId;
+        }
+    }
+
+    public static class SerializablePlayList implements Serializable {
+        private final static long serialVersionUID = -5221451482864128365L;
+        private String name;
+        private int[] trackIds;
+        public SerializablePlayList(String name, int[] trackIds) {
+            this.name = name;
+            this.trackIds = trackIds;
+        }
+        public String getName() {
+            return name;
+        }
+        public int[] getTrackIds() {
+            return trackIds;
+        }
     }
 
     public ArrayList<SerializableTrack> allTracks;
-    public HashMap<String, ArrayList<Integer>> playlistMapping;
+    public ArrayList<SerializablePlayList> playLists;
+    private HashMap<String, ArrayList<Integer>> playlistMapping;
     public Integer currentTrackID;
     public Double currentVolume;
     public Boolean isShuffling;
     public Boolean isRepeating;
+    public long journalGeneration;
+    public PlayerState() {
+        allTracks = new ArrayList<>();
+        playLists = new ArrayList<>();
+        currentTrackID = -1;
+        currentVolume = 0.5;
+        isShuffling = false;
+        isRepeating = false;
+    }
     public PlayerState(Player player) {
-        allTracks = new ArrayList<>(player.getAllTracks().stream().map(o -> new SerializableTrack(o.getFilePath(), o.getSongLiked())).toList());
+        List<Track> tracks = player.getAllTracks();
+        allTracks = new ArrayList<>(tracks.size());
+        for (Track track : tracks) {
+            player.assignTrackId(track);
+            allTracks.add(new SerializableTrack(track));
+        }
         currentTrackID = player.getCurrentTrackID();
         currentVolume = player.getCurrentVolume().get();
         isShuffling = player.getIsShuffling().get();
         isRepeating = player.getIsRepeating().get();
-        playlistMapping = new HashMap<>();
-        int playListSuffix = 0;
+        playLists = new ArrayList<>(player.getPlayLists().size());
         for (PlayList playlist : player.getPlayLists()) {
-            String playListName = playlist.getName().get() + "_" + playListSuffix;
-            if (playlistMapping.get(playListName) == null) {
-                playlistMapping.put(playListName, new ArrayList<>());
+            int[] trackIds = playlist.getPlayList().stream().mapToInt(Track::getTrackId).toArray();
+            playLists.add(new SerializablePlayList(playlist.getName().get(), trackIds));
+        }
+    }
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (playLists == null) {
+            HashMap<String, Integer> idsByPath = new HashMap<>();
+            ArrayList<SerializableTrack> uniqueTracks = new ArrayList<>(allTracks.size());
+            int[] ids = new int[allTracks.size()];
+            for (int i = 0; i < allTracks.size(); ++i) {
+                SerializableTrack track = allTracks.get(i);
+                Integer id = idsByPath.get(track.getPath());
+                if (id == null) {
+                    uniqueTracks.add(track);
+                    id = track.id = uniqueTracks.size();
+                    idsByPath.put(track.getPath(), id);
+                }
+                ids[i] = id;
+            }
+            if (currentTrackID != null && currentTrackID >= 0 && currentTrackID < ids.length) {
+                currentTrackID = ids[currentTrackID] - 1;
+            }
+            allTracks = uniqueTracks;
+            playLists = new ArrayList<>();
+            for (int playListSuffix = 0; playlistMapping != null && playListSuffix < playlistMapping.size(); ++playListSuffix) {
+                for (var entry : playlistMapping.entrySet()) {
+                    if (entry.getKey().endsWith("_" + playListSuffix)) {
+                        int[] trackIds = entry.getValue().stream().filter(index -> index >= 0 && index < ids.length).mapToInt(index -> ids[index]).toArray();
+                        playLists.add(new SerializablePlayList(entry.getKey().replaceAll("_\\d+$", ""), trackIds));
+                        break;
+                    }
+                }
+            }
+            playlistMapping = null;
+        }
+    }
+    public void replayJournal(Path journal) throws IOException {
+        JournalReplay replay = new JournalReplay();
+        StateJournal.replay(journal, journalGeneration, replay);
+        replay.finish();
+    }
+    private class JournalReplay implements StateJournal.Mutations {
+        private final List<String> playListNames = new ArrayList<>();
+        private final List<ArrayList<Integer>> playListTracks = new ArrayList<>();
+        private HashMap<String, Integer> trackIndex = null;
+        private int nextTrackId = 1;
+
+        JournalReplay() {
+            for (SerializablePlayList playList : playLists) {
+                playListNames.add(playList.getName());
+                playListTracks.add(new ArrayList<>(Arrays.stream(playList.getTrackIds()).boxed().toList()));
+            }
+            for (SerializableTrack track : allTracks) {
+                nextTrackId = Math.max(nextTrackId, track.getId() + 1);
+            }
+        }
+
+        private Integer indexOf(String path) {
+            if (trackIndex == null) {
+                trackIndex = new HashMap<>();
+                for (int i = 0; i < allTracks.size(); ++i) {
+                    trackIndex.put(allTracks.get(i).getPath(), i);
+                }
+            }
+            return trackIndex.get(path);
+        }
+
+        private int trackIdOf(String path) {
+            Integer index = indexOf(path);
+            if (index != null) {
+                return allTracks.get(index).getId();
+            }
+            SerializableTrack track = new SerializableTrack(path, false);
+            trackAdded(track);
+            return track.getId();
+        }
+
+        private boolean isPlayList(int index) {
+            return index >= 0 && index < playListTracks.size();
+        }
+
+        @Override
+        public void trackAdded(SerializableTrack track) {
+            if (indexOf(track.getPath()) == null) {
+                track.id = nextTrackId++;
+                allTracks.add(track);
+                trackIndex.put(track.getPath(), allTracks.size() - 1);
+            }
+        }
+
+        @Override
+        public void tracksAdded(List<SerializableTrack> tracks) {
+            tracks.forEach(this::trackAdded);
+        }
+
+        @Override
+        public void tracksRemoved(List<String> paths) {
+            HashSet<String> removed = new HashSet<>(paths);
+            HashSet<Integer> removedIds = new HashSet<>();
+            int currentIndex = currentTrackID;
+            int kept = 0;
+            for (int i = 0; i < allTracks.size(); ++i) {
+                SerializableTrack track = allTracks.get(i);
+                if (removed.contains(track.getPath())) {
+                    removedIds.add(track.getId());
+                    if (i < currentIndex) {
+                        --currentTrackID;
+                    } else if (i == currentIndex) {
+                        currentTrackID = -1;
+                    }
+                    continue;
+                }
+                allTracks.set(kept++, track);
+            }
+            if (removedIds.isEmpty()) {
+                return;
+            }
+            allTracks.subList(kept, allTracks.size()).clear();
+            if (currentTrackID == -1 && currentIndex != -1 && !allTracks.isEmpty()) {
+                currentTrackID = 0;
+            }
+            for (ArrayList<Integer> playList : playListTracks) {
+                playList.removeIf(removedIds::contains);
+            }
+            trackIndex = null;
+        }
+
+        @Override
+        public void playListTracksAdded(int index, List<String> paths) {
+            for (String path : paths) {
+                playListTrackAdded(index, path);
+            }
+        }
+
+        @Override
+        public void trackRemoved(String path) {
+            Integer index = indexOf(path);
+            if (index == null) {
+                return;
+            }
+            Integer trackId = allTracks.remove((int) index).getId();
+            for (ArrayList<Integer> playList : playListTracks) {
+                playList.removeIf(trackId::equals);
+            }
+            if (currentTrackID > index) {
+                --currentTrackID;
+            } else if (currentTrackID.equals(index)) {
+                currentTrackID = allTracks.isEmpty() ? -1 : 0;
+            }
+            trackIndex = null;
+        }
+
+        @Override
+        public void trackLiked(String path, boolean liked) {
+            Integer index = indexOf(path);
+            if (index != null) {
+                allTracks.get(index).songLiked = liked;
+            }
+        }
+
+        @Override
+        public void playListAdded(String name, List<String> paths) {
+            ArrayList<Integer> playList = new ArrayList<>();
+            for (String path : paths) {
+                playList.add(trackIdOf(path));
+            }
+            playListNames.add(name);
+            playListTracks.add(playList);
+        }
+
+        @Override
+        public void playListRemoved(int index) {
+            if (isPlayList(index)) {
+                playListNames.remove(index);
+                playListTracks.remove(index);
+            }
+        }
+
+        @Override
+        public void playListRenamed(int index, String name) {
+            if (isPlayList(index)) {
+                playListNames.set(index, name);
             }
-            ArrayList<Integer> currentPlaylist = playlistMapping.get(playListName);
-            for (Track track : playlist.getPlayList()) {
-                currentPlaylist.add(player.getAllTracks().indexOf(track));
+        }
+
+        @Override
+        public void playListTrackAdded(int index, String path) {
+            if (isPlayList(index)) {
+                playListTracks.get(index).add(trackIdOf(path));
             }
-            ++playListSuffix;
         }
+
+        @Override
+        public void playListTrackRemoved(int index, String path) {
+            Integer position = indexOf(path);
+            if (isPlayList(index) && position != null) {
+                playListTracks.get(index).remove((Integer) allTracks.get(position).getId());
+            }
+        }
+
+        @Override
+        public void settingsChanged(int currentTrackID, double volume, boolean shuffling, boolean repeating) {
+            PlayerState.this.currentTrackID = currentTrackID < allTracks.size() ? currentTrackID : -1;
+            currentVolume = volume;
+            isShuffling = shuffling;
+            isRepeating = repeating;
+        }
+
+        void finish() {
+            playLists = new ArrayList<>(playListTracks.size());
+            for (int i = 0; i < playListTracks.size(); ++i) {
+                playLists.add(new SerializablePlayList(playListNames.get(i), playListTracks.get(i).stream().mapToInt(Integer::intValue).toArray()));
+            }
+        }
+    }
+    Track restoreTrack(Player player, SerializableTrack item, List<Track> staleTracks) {
+        Track track = player.getTagCache().lookup(item.getPath());
+        if (track == null) {
+            if (item.hasTags()) {
+                track = new Track(item.getSongName(), item.getSongArtist(), item.getSongAlbum(), item.getSongDurationMillis(), item.getPath(), item.getSongArtworkId());
+            } else {
+                track = Track.placeholder(item.getPath());
+            }
+            staleTracks.add(track);
+        }
+        track.setSongLiked(item.getSongLiked());
+        player.restoreTrackId(track, item.getId());
+        return track;
+    }
+    List<PlayList> restorePlayLists(IntMap<Track> tracksById) {
+        List<PlayList> restored = new ArrayList<>(playLists.size());
+        for (SerializablePlayList playList : playLists) {
+            ArrayList<Track> currentPlaylist = new ArrayList<>(playList.getTrackIds().length);
+            for (int trackId : playList.getTrackIds()) {
+                Track track = tracksById.get(trackId);
+                if (track != null) {
+                    currentPlaylist.add(track);
+                }
+            }
+            restored.add(new PlayList(playList.getName(), currentPlaylist));
+        }
+        return restored;
     }
     public void initPlayer(Player player) {
-        Function<SerializableTrack, Track> func = item -> {
-            try {
-                Track track = MP3Parser.parse(new File(URI.create(item.getPath())));
-                track.setSongLiked(item.getSongLiked());
-                return track;
-            } catch (InvalidDataException | UnsupportedTagException | IOException e) {
-                throw new RuntimeException(e);
-            }
-        };
-        List<Track> trackList = allTracks.stream().map(func).toList();
-        PlayerContext.selectedPlaylist.setAll(trackList);
-        for (var entry : playlistMapping.entrySet()) {
-            ArrayList<Track> currentPlaylist = new ArrayList<>();
-            for (Integer trackID : entry.getValue()) {
-                currentPlaylist.add(trackList.get(trackID));
-            }
-            player.getPlayLists().add(new PlayList(entry.getKey().replaceAll("_\\d+$", ""), currentPlaylist));
+        List<Track> staleTracks = new ArrayList<>();
+        IntMap<Track> tracksById = new IntMap<>(allTracks.size());
+        List<Track> trackList = new ArrayList<>(allTracks.size());
+        for (SerializableTrack item : allTracks) {
+            Track track = restoreTrack(player, item, staleTracks);
+            tracksById.put(track.getTrackId(), track);
+            trackList.add(track);
         }
+        player.getPlayLists().addAll(restorePlayLists(tracksById));
         player.getAllTracks().setAll(trackList);
+        PlayerContext.selectedPlaylist.setSource(player.getAllTracks());
         PlayerContext.selectedPlaylistRef = player.getAllTracks();
-        player.getCurrentPlayList().setAll(trackList);
-        player.setCurrentTrackID(currentTrackID);
+        player.setCurrentPlayList(player.getAllTracks());
+        if (currentTrackID >= 0 && currentTrackID < trackList.size()) {
+            player.setCurrentTrackID(currentTrackID);
+        }
         player.setIsShuffling(isShuffling);
         player.setIsRepeating(isRepeating);
+        player.refreshTags(staleTracks);
     }
 }
@@ -0,0 +1,80 @@
+package com.player.mediaplayer.models;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+import javafx.collections.WeakListChangeListener;
+
+public class PlaylistView extends ObservableListBase<Track> {
+    private final ListChangeListener<Track> forwarder = this::forward;
+    private final WeakListChangeListener<Track> weakForwarder = new WeakListChangeListener<>(forwarder);
+    private ObservableList<Track> source = FXCollections.emptyObservableList();
+
+    public PlaylistView() {
+    }
+
+    public PlaylistView(ObservableList<Track> source) {
+        setSource(source);
+    }
+
+    public ObservableList<Track> getSource() {
+        return source;
+    }
+
+    public void setSource(ObservableList<Track> newSource) {
+        if (newSource instanceof PlaylistView) {
+            newSource = ((PlaylistView) newSource).getSource();
+        }
+        if (newSource == source) {
+            return;
+        }
+        ObservableList<Track> oldSource = source;
+        oldSource.removeListener(weakForwarder);
+        source = newSource;
+        source.addListener(weakForwarder);
+        beginChange();
+        if (!oldSource.isEmpty()) {
+            nextRemove(0, oldSource);
+        }
+        if (!source.isEmpty()) {
+            nextAdd(0, source.size());
+        }
+        endChange();
+    }
+
+    @Override
+    public Track get(int index) {
+        return source.get(index);
+    }
+
+    @Override
+    public int size() {
+        return source.size();
+    }
+
+    private void forward(ListChangeListener.Change<? extends Track> change) {
+        beginChange();
+        while (change.next()) {
+            if (change.wasPermutated()) {
+                int[] permutation = new int[change.getTo() - change.getFrom()];
+                for (int i = change.getFrom(); i < change.getTo(); ++i) {
+                    permutation[i - change.getFrom()] = change.getPermutation(i);
+                }
+                nextPermutation(change.getFrom(), change.getTo(), permutation);
+            } else if (change.wasUpdated()) {
+                for (int i = change.getFrom(); i < change.getTo(); ++i) {
+                    nextUpdate(i);
+                }
+            } else {
+                if (change.wasRemoved()) {
+                    nextRemove(change.getFrom(), change.getRemoved());
+                }
+                if (change.wasAdded()) {
+                    nextAdd(change.getFrom(), change.getTo());
+                }
+            }
+        }
+        endChange();
+    }
+}
@@ -0,0 +1,207 @@
+package com.player.mediaplayer.models;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+import javafx.collections.WeakListChangeListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+public class SortedPlaylistView extends ObservableListBase<Track> {
+    private static class Row {
+        private final Track track;
+        private int sourceIndex;
+
+        Row(Track track, int sourceIndex) {
+            this.track = track;
+            this.sourceIndex = sourceIndex;
+        }
+    }
+
+    private final static int PARALLEL_SORT_THRESHOLD = 10_000;
+    private final ObservableList<Track> source;
+    private final ListChangeListener<Track> listener = this::sourceChanged;
+    private Comparator<Track> comparator = null;
+    private Track[] sorted = null;
+    private int[] sourceIndexes = null;
+
+    public SortedPlaylistView(ObservableList<Track> source) {
+        this.source = source;
+        source.addListener(new WeakListChangeListener<>(listener));
+    }
+
+    public Comparator<Track> getComparator() {
+        return comparator;
+    }
+
+    public void setComparator(Comparator<Track> comparator) {
+        if (comparator == null && this.comparator == null) {
+            return;
+        }
+        List<Track> removed = sorted != null ? Arrays.asList(sorted) : source;
+        this.comparator = comparator;
+        if (comparator != null) {
+            Row[] rows = new Row[source.size()];
+            for (int i = 0; i < rows.length; ++i) {
+                rows[i] = new Row(source.get(i), i);
+            }
+            setRows(sort(rows));
+        } else {
+            sorted = null;
+            sourceIndexes = null;
+        }
+        beginChange();
+        if (!removed.isEmpty()) {
+            nextRemove(0, removed);
+        }
+        if (size() > 0) {
+            nextAdd(0, size());
+        }
+        endChange();
+    }
+
+    public int getSourceIndex(int index) {
+        return sorted != null ? sourceIndexes[index] : index;
+    }
+
+    @Override
+    public Track get(int index) {
+        if (sorted == null) {
+            return source.get(index);
+        }
+        if (index >= sorted.length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return sorted[index];
+    }
+
+    @Override
+    public int size() {
+        return sorted != null ? sorted.length : source.size();
+    }
+
+    private Row[] sort(Row[] rows) {
+        Comparator<Row> rowComparator = (a, b) -> comparator.compare(a.track, b.track);
+        if (rows.length >= PARALLEL_SORT_THRESHOLD) {
+            Arrays.parallelSort(rows, rowComparator);
+        } else {
+            Arrays.sort(rows, rowComparator);
+        }
+        return rows;
+    }
+
+    private void setRows(Row[] rows) {
+        sorted = new Track[rows.length];
+        sourceIndexes = new int[rows.length];
+        for (int i = 0; i < rows.length; ++i) {
+            sorted[i] = rows[i].track;
+            sourceIndexes[i] = rows[i].sourceIndex;
+        }
+    }
+
+    private void sourceChanged(ListChangeListener.Change<? extends Track> change) {
+        if (sorted == null) {
+            forward(change);
+            return;
+        }
+        List<Row> added = new ArrayList<>();
+        boolean onlyAdded = true;
+        while (change.next()) {
+            int from = change.getFrom();
+            if (change.wasPermutated()) {
+                for (int i = 0; i < sourceIndexes.length; ++i) {
+                    if (sourceIndexes[i] >= from && sourceIndexes[i] < change.getTo()) {
+                        sourceIndexes[i] = change.getPermutation(sourceIndexes[i]);
+                    }
+                }
+                for (Row row : added) {
+                    if (row.sourceIndex >= from && row.sourceIndex < change.getTo()) {
+                        row.sourceIndex = change.getPermutation(row.sourceIndex);
+                    }
+                }
+                continue;
+            }
+            if (change.wasRemoved() || change.wasUpdated()) {
+                onlyAdded = false;
+                break;
+            }
+            int count = change.getAddedSize();
+            for (int i = 0; i < sourceIndexes.length; ++i) {
+                if (sourceIndexes[i] >= from) {
+                    sourceIndexes[i] += count;
+                }
+            }
+            for (Row row : added) {
+                if (row.sourceIndex >= from) {
+                    row.sourceIndex += count;
+                }
+            }
+            List<? extends Track> addedTracks = change.getAddedSubList();
+            for (int i = 0; i < count; ++i) {
+                added.add(new Row(addedTracks.get(i), from + i));
+            }
+        }
+        if (onlyAdded) {
+            merge(sort(added.toArray(new Row[0])));
+        } else {
+            setComparator(comparator);
+        }
+    }
+
+    private void merge(Row[] added) {
+        if (added.length == 0) {
+            return;
+        }
+        Track[] oldTracks = sorted;
+        int[] oldIndexes = sourceIndexes;
+        int length = oldTracks.length + added.length;
+        sorted = new Track[length];
+        sourceIndexes = new int[length];
+        int[] positions = new int[added.length];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < length; ++k) {
+            if (j < added.length && (i == oldTracks.length || comparator.compare(added[j].track, oldTracks[i]) < 0)) {
+                positions[j] = k;
+                sorted[k] = added[j].track;
+                sourceIndexes[k] = added[j++].sourceIndex;
+            } else {
+                sorted[k] = oldTracks[i];
+                sourceIndexes[k] = oldIndexes[i++];
+            }
+        }
+        beginChange();
+        for (int position : positions) {
+            nextAdd(position, position + 1);
+        }
+        endChange();
+    }
+
+    private void forward(ListChangeListener.Change<? extends Track> change) {
+        beginChange();
+        while (change.next()) {
+            if (change.wasPermutated()) {
+                int[] permutation = new int[change.getTo() - change.getFrom()];
+                for (int i = change.getFrom(); i < change.getTo(); ++i) {
+                    permutation[i - change.getFrom()] = change.getPermutation(i);
+                }
+                nextPermutation(change.getFrom(), change.getTo(), permutation);
+            } else if (change.wasUpdated()) {
+                for (int i = change.getFrom(); i < change.getTo(); ++i) {
+                    nextUpdate(i);
+                }
+            } else {
+                if (change.wasRemoved()) {
+                    nextRemove(change.getFrom(), change.getRemoved());
+                }
+                if (change.wasAdded()) {
+                    nextAdd(change.getFrom(), change.getTo());
+                }
+            }
+        }
+        endChange();
+    }
+}
@@ -0,0 +1,84 @@
+package com.player.mediaplayer.models;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+
+public class TagCache implements Serializable {
+    private final static long serialVersionUID = -5551862209603049659L;
+    private static class Entry implements Serializable {
+        private final static long serialVersionUID = -98875500907227835L;
+        private final long size;
+        private final long lastModified;
+        private final String songName;
+        private final String songArtist;
+        private final String songAlbum;
+        private final int songDurationMillis;
+        private final String songArtworkId;
+
+        Entry(long size, long lastModified, Track track) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.songName = track.getSongName();
+            this.songArtist = track.getSongArtist();
+            this.songAlbum = track.getSongAlbum();
+            this.songDurationMillis = track.getSongDurationMillis();
+            this.songArtworkId = track.getSongArtworkId();
+        }
+
+        boolean matches(BasicFileAttributes attributes) {
+            return attributes.size() == size && attributes.lastModifiedTime().toMillis() == lastModified;
+        }
+
+        Track toTrack(String filePath) {
+            return new Track(songName, songArtist, songAlbum, songDurationMillis, filePath, songArtworkId);
+        }
+    }
+
+    private final HashMap<String, Entry> entries = new HashMap<>();
+
+    public synchronized Track lookup(String filePath) {
+        Entry entry = entries.get(filePath);
+        if (entry == null) {
+            return null;
+        }
+        BasicFileAttributes attributes = readAttributes(filePath);
+        if (attributes == null || !entry.matches(attributes)) {
+            return null;
+        }
+        return entry.toTrack(filePath);
+    }
+
+    public synchronized void put(Track track) {
+        BasicFileAttributes attributes = readAttributes(track.getFilePath());
+        if (attributes != null) {
+            entries.put(track.getFilePath(), new Entry(attributes.size(), attributes.lastModifiedTime().toMillis(), track));
+        }
+    }
+
+    public synchronized boolean contains(String filePath) {
+        return entries.containsKey(filePath);
+    }
+
+    public synchronized void retainAll(Collection<String> filePaths) {
+        entries.keySet().retainAll(new HashSet<>(filePaths));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static BasicFileAttributes readAttributes(String filePath) {
+        try {
+            return Files.readAttributes(new File(URI.create(filePath)).toPath(), BasicFileAttributes.class);
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
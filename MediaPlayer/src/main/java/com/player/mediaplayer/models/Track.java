@@ -1,26 +1,65 @@
 package com.player.mediaplayer.models;
 
+import com.player.mediaplayer.PlayerContext;
+import com.player.mediaplayer.utils.MP3Parser;
+import com.player.mediaplayer.utils.TimeFormat;
 import javafx.scene.image.Image;
 
-import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.Serializable;
+import java.net.URI;
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Comparator;
+import java.util.function.Consumer;
 
 public class Track implements Serializable {
+    private final static int MILLISECONDS_IN_SECOND = 1000;
+    private final static ThreadLocal<Collator> collator = ThreadLocal.withInitial(Collator::getInstance);
+    public final static Comparator<Track> BY_NAME = Comparator.comparing(Track::getSongNameKey);
+    public final static Comparator<Track> BY_ARTIST = Comparator.comparing(Track::getSongArtistKey);
+    public final static Comparator<Track> BY_ALBUM = Comparator.comparing(Track::getSongAlbumKey);
+    public final static Comparator<Track> BY_DURATION = Comparator.comparingInt(Track::getSongDurationMillis);
     private String songName;
     private String songArtist;
     private String songAlbum;
-    private String songDuration;
+    private int songDurationMillis;
     private Boolean songLiked = false;
     private String filePath;
-    private byte[] songArtworkImageArray;
+    private String songArtworkId;
+    private int trackId = 0;
+    private transient CollationKey songNameKey;
+    private transient CollationKey songArtistKey;
+    private transient CollationKey songAlbumKey;
 
-    public Track(String songName, String songArtist, String songAlbum, String songDuration, String filePath, byte[] songArtworkImageArray) {
+    public Track(String songName, String songArtist, String songAlbum, int songDurationMillis, String filePath, String songArtworkId) {
         this.songName = songName;
         this.songArtist = songArtist;
         this.songAlbum = songAlbum;
-        this.songDuration = songDuration;
+        this.songDurationMillis = songDurationMillis;
         this.filePath = filePath;
-        this.songArtworkImageArray = songArtworkImageArray;
+        this.songArtworkId = songArtworkId;
+        updateCollationKeys();
+    }
+
+    static Track placeholder(String filePath) {
+        return new Track(MP3Parser.parseTitle(new File(URI.create(filePath)), null), null, null, 0, filePath, null);
+    }
+
+    void updateTags(Track track) {
+        songName = track.songName;
+        songArtist = track.songArtist;
+        songAlbum = track.songAlbum;
+        songDurationMillis = track.songDurationMillis;
+        songArtworkId = track.songArtworkId;
+        updateCollationKeys();
+    }
+
+    private void updateCollationKeys() {
+        Collator collator = Track.collator.get();
+        songNameKey = collator.getCollationKey(songName != null ? songName : "");
+        songArtistKey = collator.getCollationKey(songArtist != null ? songArtist : "");
+        songAlbumKey = collator.getCollationKey(songAlbum != null ? songAlbum : "");
     }
 
     public String getSongName() {
@@ -36,7 +75,23 @@ public class Track implements Serializable {
     }
 
     public String getSongDuration() {
-        return songDuration;
+        return TimeFormat.format((songDurationMillis + MILLISECONDS_IN_SECOND / 2) / MILLISECONDS_IN_SECOND);
+    }
+
+    public int getSongDurationMillis() {
+        return songDurationMillis;
+    }
+
+    public CollationKey getSongNameKey() {
+        return songNameKey;
+    }
+
+    public CollationKey getSongArtistKey() {
+        return songArtistKey;
+    }
+
+    public CollationKey getSongAlbumKey() {
+        return songAlbumKey;
     }
 
     public Boolean getSongLiked() {
@@ -47,8 +102,40 @@ public class Track implements Serializable {
         return filePath;
     }
 
+    public int getTrackId() {
+        return trackId;
+    }
+
+    void setTrackId(int trackId) {
+        this.trackId = trackId;
+    }
+
+    public boolean hasSongArtwork() {
+        return songArtworkId != null;
+    }
+
+    public String getSongArtworkId() {
+        return songArtworkId;
+    }
+
     public Image getSongArtwork() {
-        return songArtworkImageArray != null ? new Image(new ByteArrayInputStream(songArtworkImageArray)) : null;
+        return getSongArtwork(0, 0);
+    }
+
+    public Image getSongArtwork(double width, double height) {
+        return songArtworkId != null ? PlayerContext.artworkStore.getImage(songArtworkId, width, height) : null;
+    }
+
+    public Image getCachedSongArtwork(double width, double height) {
+        return songArtworkId != null ? PlayerContext.artworkStore.getCachedImage(songArtworkId, width, height) : null;
+    }
+
+    public void loadSongArtwork(double width, double height, Consumer<Image> onLoaded) {
+        if (songArtworkId == null) {
+            onLoaded.accept(null);
+            return;
+        }
+        PlayerContext.artworkStore.loadImage(songArtworkId, width, height, onLoaded);
     }
 
     public void setSongLiked(Boolean newState) {
@@ -0,0 +1,41 @@
+package com.player.mediaplayer.utils;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public class ArtworkDigest {
+    private final static String ALGORITHM = "SHA-1";
+    public final static int SAMPLE_SIZE = 8 * 1024;
+
+    private ArtworkDigest() {}
+
+    public static MessageDigest newDigest(int length) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(ALGORITHM);
+            digest.update(new byte[]{(byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length});
+            return digest;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static boolean isSampled(int length) {
+        return length > 2 * SAMPLE_SIZE;
+    }
+
+    public static String toId(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public static String of(byte[] bytes) {
+        MessageDigest digest = newDigest(bytes.length);
+        if (isSampled(bytes.length)) {
+            digest.update(bytes, 0, SAMPLE_SIZE);
+            digest.update(bytes, bytes.length - SAMPLE_SIZE, SAMPLE_SIZE);
+        } else {
+            digest.update(bytes);
+        }
+        return toId(digest);
+    }
+}
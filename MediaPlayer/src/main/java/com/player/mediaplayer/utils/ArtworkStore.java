@@ -0,0 +1,212 @@
+package com.player.mediaplayer.utils;
+
+import com.player.mediaplayer.models.ArtworkRef;
+import com.player.mediaplayer.models.ArtworkTable;
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+public class ArtworkStore {
+    private final static int BYTES_PER_PIXEL = 4;
+    private final static int DECODER_THREADS = 2;
+
+    private static class Key {
+        private final String artwork;
+        private final int width;
+        private final int height;
+
+        Key(String artwork, int width, int height) {
+            this.artwork = artwork;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return width == other.width && height == other.height && artwork.equals(other.artwork);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(artwork, width, height);
+        }
+    }
+
+    private final long maxCachedBytes;
+    private ArtworkTable artworkTable = new ArtworkTable();
+    private final LinkedHashMap<Key, Image> images = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private final HashMap<Key, List<Consumer<Image>>> pending = new HashMap<>();
+    private final ExecutorService decoders = Executors.newFixedThreadPool(DECODER_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "artwork-decoder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ArtworkStore(long maxCachedBytes) {
+        this.maxCachedBytes = maxCachedBytes;
+    }
+
+    public ArtworkTable getArtworkTable() {
+        return artworkTable;
+    }
+
+    public synchronized void setArtworkTable(ArtworkTable artworkTable) {
+        this.artworkTable = artworkTable;
+        clear();
+    }
+
+    public synchronized Image getImage(String artworkId, double width, double height) {
+        Key key = new Key(artworkId, (int) Math.ceil(width), (int) Math.ceil(height));
+        Image image = images.get(key);
+        if (image != null) {
+            ++hits;
+            return image;
+        }
+        ++misses;
+        image = decode(key, artworkTable);
+        if (image != null) {
+            cache(key, image);
+        }
+        return image;
+    }
+
+    public synchronized Image getCachedImage(String artworkId, double width, double height) {
+        Image image = images.get(new Key(artworkId, (int) Math.ceil(width), (int) Math.ceil(height)));
+        if (image != null) {
+            ++hits;
+        }
+        return image;
+    }
+
+    public void loadImage(String artworkId, double width, double height, Consumer<Image> onLoaded) {
+        Key key = new Key(artworkId, (int) Math.ceil(width), (int) Math.ceil(height));
+        ArtworkTable table;
+        synchronized (this) {
+            Image image = images.get(key);
+            if (image != null) {
+                ++hits;
+                onLoaded.accept(image);
+                return;
+            }
+            List<Consumer<Image>> waiting = pending.get(key);
+            if (waiting != null) {
+                waiting.add(onLoaded);
+                return;
+            }
+            ++misses;
+            waiting = new ArrayList<>();
+            waiting.add(onLoaded);
+            pending.put(key, waiting);
+            table = artworkTable;
+        }
+        decoders.execute(() -> {
+            Image image = decode(key, table);
+            List<Consumer<Image>> waiting;
+            synchronized (this) {
+                waiting = pending.remove(key);
+                if (image != null && table == artworkTable) {
+                    cache(key, image);
+                }
+            }
+            Platform.runLater(() -> waiting.forEach(callback -> callback.accept(image)));
+        });
+    }
+
+    private static Image decode(Key key, ArtworkTable table) {
+        ArtworkRef location = table.locate(key.artwork);
+        byte[] bytes = location != null ? readBytes(location) : null;
+        if (bytes == null) {
+            return null;
+        }
+        Image image = new Image(new ByteArrayInputStream(bytes), key.width, key.height, true, true);
+        return image.isError() ? null : image;
+    }
+
+    private void cache(Key key, Image image) {
+        if (images.put(key, image) == null) {
+            cachedBytes += sizeOf(image);
+        }
+        evict();
+    }
+
+    public static byte[] readBytes(ArtworkRef artwork) {
+        File file = new File(URI.create(artwork.getFilePath()));
+        if (!artwork.isLocated()) {
+            return MP3Parser.parseArtwork(file);
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(artwork.getLength());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, artwork.getOffset() + buffer.position()) < 0) {
+                    return null;
+                }
+            }
+            return buffer.array();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    public synchronized int getCachedImages() {
+        return images.size();
+    }
+
+    public synchronized void clear() {
+        images.clear();
+        cachedBytes = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ArtworkStore[%d images, %.1f MB, %d hits, %d misses]",
+                images.size(), cachedBytes / 1024.0 / 1024.0, hits, misses);
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<Key, Image>> iterator = images.entrySet().iterator();
+        while (cachedBytes > maxCachedBytes && images.size() > 1 && iterator.hasNext()) {
+            cachedBytes -= sizeOf(iterator.next().getValue());
+            iterator.remove();
+        }
+    }
+
+    private static long sizeOf(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * BYTES_PER_PIXEL;
+    }
+}
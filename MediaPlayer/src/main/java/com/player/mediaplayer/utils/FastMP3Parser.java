@@ -0,0 +1,399 @@
+package com.player.mediaplayer.utils;
+
+import com.mpatric.mp3agic.InvalidDataException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+
+public class FastMP3Parser {
+    public static class Header {
+        private String title;
+        private String artist;
+        private String album;
+        private long durationMillis;
+        private boolean artworkEmbedded;
+        private long artworkOffset = -1;
+        private int artworkLength;
+        private String artworkDigest;
+        private long bytesRead;
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getArtist() {
+            return artist;
+        }
+
+        public String getAlbum() {
+            return album;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        public boolean hasArtwork() {
+            return artworkEmbedded;
+        }
+
+        public long getArtworkOffset() {
+            return artworkOffset;
+        }
+
+        public int getArtworkLength() {
+            return artworkLength;
+        }
+
+        public String getArtworkDigest() {
+            return artworkDigest;
+        }
+
+        public long getBytesRead() {
+            return bytesRead;
+        }
+    }
+
+    private final static int WINDOW_SIZE = 4096;
+    private final static int ID3V2_HEADER_SIZE = 10;
+    private final static int ID3V1_SIZE = 128;
+    private final static int FRAME_SEARCH_LIMIT = 65536;
+    private final static int[][] BITRATES = {
+            {0, 32, 64, 96, 128, 160, 192, 224, 256, 288, 320, 352, 384, 416, 448},
+            {0, 32, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 384},
+            {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320},
+            {0, 32, 48, 56, 64, 80, 96, 112, 128, 144, 160, 176, 192, 224, 256},
+            {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160}
+    };
+    private final static int[][] SAMPLE_RATES = {
+            {11025, 12000, 8000},
+            {0, 0, 0},
+            {22050, 24000, 16000},
+            {44100, 48000, 32000}
+    };
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final Header header = new Header();
+    private final ByteBuffer window = ByteBuffer.allocate(WINDOW_SIZE);
+    private long windowPosition = -1;
+    private long bytesRead = 0;
+
+    private FastMP3Parser(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.fileSize = channel.size();
+    }
+
+    public static Header parse(File file) throws IOException, InvalidDataException {
+        return parse(file, false);
+    }
+
+    public static Header parse(File file, boolean digestArtwork) throws IOException, InvalidDataException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            FastMP3Parser parser = new FastMP3Parser(channel);
+            long audioStart = parser.readId3v2();
+            if (digestArtwork && parser.header.artworkOffset >= 0) {
+                parser.digestArtwork();
+            }
+            boolean hasId3v1 = parser.readId3v1();
+            parser.readFirstFrame(audioStart, hasId3v1);
+            parser.header.bytesRead = parser.bytesRead;
+            return parser.header;
+        }
+    }
+
+    private long readId3v2() throws IOException, InvalidDataException {
+        ByteBuffer buffer = read(0, ID3V2_HEADER_SIZE);
+        if (buffer.remaining() < ID3V2_HEADER_SIZE || buffer.get(0) != 'I' || buffer.get(1) != 'D' || buffer.get(2) != '3') {
+            return 0;
+        }
+        int version = buffer.get(3);
+        int flags = buffer.get(5) & 0xFF;
+        long tagEnd = ID3V2_HEADER_SIZE + syncSafe(buffer, 6);
+        long audioStart = tagEnd + ((flags & 0x10) != 0 ? ID3V2_HEADER_SIZE : 0);
+        if (version < 2 || version > 4 || (flags & 0x80) != 0 && version < 4) {
+            throw new InvalidDataException("Unsupported ID3v2 tag");
+        }
+
+        long position = ID3V2_HEADER_SIZE;
+        if ((flags & 0x40) != 0 && version > 2) {
+            ByteBuffer extended = read(position, 4);
+            position += version == 3 ? 4 + extended.getInt(0) : syncSafe(extended, 0);
+        }
+        int frameHeaderSize = version == 2 ? 6 : 10;
+        int idLength = version == 2 ? 3 : 4;
+        while (position + frameHeaderSize <= tagEnd) {
+            ByteBuffer frame = read(position, frameHeaderSize);
+            if (frame.remaining() < frameHeaderSize || !isFrameId(frame, idLength)) {
+                break;
+            }
+            String id = new String(frame.array(), frame.arrayOffset() + frame.position(), idLength, StandardCharsets.ISO_8859_1);
+            long size = version == 2 ? frame.getInt(frame.position() + 2) & 0xFFFFFF
+                    : version == 3 ? frame.getInt(frame.position() + 4) & 0xFFFFFFFFL
+                    : syncSafe(frame, frame.position() + 4);
+            int formatFlags = version == 2 ? 0 : frame.get(frame.position() + 9) & 0xFF;
+            long dataStart = position + frameHeaderSize;
+            position = dataStart + size;
+            if (position > tagEnd) {
+                break;
+            }
+            if (isUnreadable(version, formatFlags)) {
+                continue;
+            }
+            int prefix = version == 4 ? ((formatFlags & 0x40) != 0 ? 1 : 0) + ((formatFlags & 0x01) != 0 ? 4 : 0)
+                    : (formatFlags & 0x20) != 0 ? 1 : 0;
+            boolean unsynchronised = version == 4 && ((formatFlags & 0x02) != 0 || (flags & 0x80) != 0);
+            readFrame(id, dataStart + prefix, (int) size - prefix, unsynchronised);
+        }
+        return audioStart;
+    }
+
+    private void readFrame(String id, long position, int size, boolean unsynchronised) throws IOException {
+        switch (id) {
+            case "TIT2", "TT2" -> header.title = readText(position, size);
+            case "TPE1", "TP1" -> header.artist = readText(position, size);
+            case "TALB", "TAL" -> header.album = readText(position, size);
+            case "APIC", "PIC" -> {
+                if (!header.artworkEmbedded) {
+                    header.artworkEmbedded = true;
+                    if (!unsynchronised) {
+                        locateArtwork(position, size, id.equals("PIC"));
+                    }
+                }
+            }
+            default -> { }
+        }
+    }
+
+    private void locateArtwork(long position, int size, boolean legacyFormat) throws IOException {
+        ByteBuffer buffer = read(position, Math.min(size, WINDOW_SIZE));
+        int start = buffer.position();
+        int end = buffer.limit();
+        int encoding = buffer.get(start);
+        int index = start + 1;
+        if (legacyFormat) {
+            index += 3;
+        } else {
+            while (index < end && buffer.get(index) != 0) {
+                ++index;
+            }
+            ++index;
+        }
+        ++index;
+        if (encoding == 1 || encoding == 2) {
+            while (index + 1 < end && (buffer.get(index) != 0 || buffer.get(index + 1) != 0)) {
+                index += 2;
+            }
+            index += 2;
+        } else {
+            while (index < end && buffer.get(index) != 0) {
+                ++index;
+            }
+            ++index;
+        }
+        if (index <= end && index - start < size) {
+            header.artworkOffset = position + (index - start);
+            header.artworkLength = size - (index - start);
+        }
+    }
+
+    private void digestArtwork() throws IOException {
+        int length = header.artworkLength;
+        MessageDigest digest = ArtworkDigest.newDigest(length);
+        ByteBuffer buffer = ByteBuffer.allocate(ArtworkDigest.SAMPLE_SIZE);
+        boolean complete;
+        if (ArtworkDigest.isSampled(length)) {
+            complete = digestRange(digest, buffer, header.artworkOffset, ArtworkDigest.SAMPLE_SIZE) &&
+                    digestRange(digest, buffer, header.artworkOffset + length - ArtworkDigest.SAMPLE_SIZE, ArtworkDigest.SAMPLE_SIZE);
+        } else {
+            complete = digestRange(digest, buffer, header.artworkOffset, length);
+        }
+        if (complete) {
+            header.artworkDigest = ArtworkDigest.toId(digest);
+        }
+    }
+
+    private boolean digestRange(MessageDigest digest, ByteBuffer buffer, long position, int length) throws IOException {
+        long end = position + length;
+        while (position < end) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                return false;
+            }
+            bytesRead += read;
+            position += read;
+            digest.update(buffer.array(), 0, read);
+        }
+        return true;
+    }
+
+    private String readText(long position, int size) throws IOException {
+        if (size <= 1) {
+            return null;
+        }
+        ByteBuffer buffer = read(position, size);
+        if (buffer.remaining() < size) {
+            return null;
+        }
+        int start = buffer.position();
+        Charset charset = switch (buffer.get(start)) {
+            case 1 -> StandardCharsets.UTF_16;
+            case 2 -> StandardCharsets.UTF_16BE;
+            case 3 -> StandardCharsets.UTF_8;
+            default -> StandardCharsets.ISO_8859_1;
+        };
+        String text = new String(buffer.array(), buffer.arrayOffset() + start + 1, size - 1, charset);
+        int terminator = text.indexOf('\0');
+        text = (terminator >= 0 ? text.substring(0, terminator) : text).trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    private boolean readId3v1() throws IOException {
+        if (fileSize < ID3V1_SIZE) {
+            return false;
+        }
+        ByteBuffer buffer = read(fileSize - ID3V1_SIZE, ID3V1_SIZE);
+        int start = buffer.position();
+        if (buffer.get(start) != 'T' || buffer.get(start + 1) != 'A' || buffer.get(start + 2) != 'G') {
+            return false;
+        }
+        if (header.title == null) {
+            header.title = readFixedText(buffer, start + 3);
+        }
+        if (header.artist == null) {
+            header.artist = readFixedText(buffer, start + 33);
+        }
+        if (header.album == null) {
+            header.album = readFixedText(buffer, start + 63);
+        }
+        return true;
+    }
+
+    private static String readFixedText(ByteBuffer buffer, int offset) {
+        String text = new String(buffer.array(), buffer.arrayOffset() + offset, 30, StandardCharsets.ISO_8859_1);
+        int terminator = text.indexOf('\0');
+        text = (terminator >= 0 ? text.substring(0, terminator) : text).trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    private void readFirstFrame(long audioStart, boolean hasId3v1) throws IOException, InvalidDataException {
+        long position = audioStart;
+        long searchEnd = Math.min(fileSize, audioStart + FRAME_SEARCH_LIMIT);
+        while (position + 4 <= searchEnd) {
+            ByteBuffer buffer = read(position, WINDOW_SIZE);
+            int start = buffer.position();
+            int limit = buffer.limit();
+            for (int index = start; index + 4 <= limit; ++index) {
+                if (readFrameHeader(buffer, index, position + (index - start), audioStart, hasId3v1)) {
+                    return;
+                }
+            }
+            position += Math.max(1, limit - start - 3);
+        }
+        throw new InvalidDataException("No MPEG frame found");
+    }
+
+    private boolean readFrameHeader(ByteBuffer buffer, int index, long framePosition, long audioStart, boolean hasId3v1) throws IOException {
+        int b1 = buffer.get(index) & 0xFF;
+        int b2 = buffer.get(index + 1) & 0xFF;
+        if (b1 != 0xFF || (b2 & 0xE0) != 0xE0) {
+            return false;
+        }
+        int b3 = buffer.get(index + 2) & 0xFF;
+        int b4 = buffer.get(index + 3) & 0xFF;
+        int version = (b2 >> 3) & 0x03;
+        int layer = (b2 >> 1) & 0x03;
+        int bitrateIndex = (b3 >> 4) & 0x0F;
+        int sampleRateIndex = (b3 >> 2) & 0x03;
+        if (version == 1 || layer == 0 || bitrateIndex == 0 || bitrateIndex == 15 || sampleRateIndex == 3) {
+            return false;
+        }
+        boolean mpeg1 = version == 3;
+        boolean mono = ((b4 >> 6) & 0x03) == 3;
+        int bitrate = BITRATES[mpeg1 ? 3 - layer : layer == 3 ? 3 : 4][bitrateIndex];
+        int sampleRate = SAMPLE_RATES[version][sampleRateIndex];
+        int samplesPerFrame = layer == 3 ? 384 : layer == 2 || mpeg1 ? 1152 : 576;
+
+        long frames = readXingFrames(framePosition + 4 + (mpeg1 ? (mono ? 17 : 32) : (mono ? 9 : 17)));
+        if (frames <= 0) {
+            frames = readVbriFrames(framePosition + 36);
+        }
+        if (frames > 0) {
+            header.durationMillis = frames * samplesPerFrame * 1000L / sampleRate;
+        } else {
+            long audioBytes = fileSize - framePosition - (hasId3v1 ? ID3V1_SIZE : 0);
+            header.durationMillis = audioBytes * 8 / bitrate;
+        }
+        return true;
+    }
+
+    private long readXingFrames(long position) throws IOException {
+        ByteBuffer buffer = read(position, 12);
+        if (buffer.remaining() < 12) {
+            return -1;
+        }
+        int start = buffer.position();
+        String tag = new String(buffer.array(), buffer.arrayOffset() + start, 4, StandardCharsets.ISO_8859_1);
+        if (!tag.equals("Xing") && !tag.equals("Info")) {
+            return -1;
+        }
+        return (buffer.getInt(start + 4) & 0x01) != 0 ? buffer.getInt(start + 8) & 0xFFFFFFFFL : -1;
+    }
+
+    private long readVbriFrames(long position) throws IOException {
+        ByteBuffer buffer = read(position, 18);
+        if (buffer.remaining() < 18) {
+            return -1;
+        }
+        int start = buffer.position();
+        String tag = new String(buffer.array(), buffer.arrayOffset() + start, 4, StandardCharsets.ISO_8859_1);
+        return tag.equals("VBRI") ? buffer.getInt(start + 14) & 0xFFFFFFFFL : -1;
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        if (windowPosition < 0 || position < windowPosition || position + length > windowPosition + window.limit()) {
+            ByteBuffer target = length > WINDOW_SIZE ? ByteBuffer.allocate(length) : window;
+            target.clear();
+            while (target.hasRemaining()) {
+                int read = channel.read(target, position + target.position());
+                if (read < 0) {
+                    break;
+                }
+                bytesRead += read;
+            }
+            target.flip();
+            if (target != window) {
+                return target;
+            }
+            windowPosition = position;
+        }
+        int offset = (int) (position - windowPosition);
+        return window.duplicate().position(offset).limit(Math.min(window.limit(), offset + length)).slice();
+    }
+
+    private static boolean isFrameId(ByteBuffer buffer, int length) {
+        for (int i = 0; i < length; ++i) {
+            byte b = buffer.get(buffer.position() + i);
+            if (!(b >= 'A' && b <= 'Z' || b >= '0' && b <= '9')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isUnreadable(int version, int formatFlags) {
+        return version == 3 ? (formatFlags & 0xC0) != 0 : version == 4 && (formatFlags & 0x0C) != 0;
+    }
+
+    private static long syncSafe(ByteBuffer buffer, int offset) {
+        return ((buffer.get(offset) & 0x7FL) << 21) | ((buffer.get(offset + 1) & 0x7FL) << 14)
+                | ((buffer.get(offset + 2) & 0x7FL) << 7) | (buffer.get(offset + 3) & 0x7FL);
+    }
+}
@@ -0,0 +1,186 @@
+package com.player.mediaplayer.utils;
+
+import com.player.mediaplayer.models.TagCache;
+import com.player.mediaplayer.models.Track;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+public class LibraryImporter extends Task<Integer> {
+    private final static int BATCH_SIZE = 250;
+    private final static long BATCH_INTERVAL_NANOS = 200_000_000L;
+    private final static double NANOS_IN_SECOND = 1e9;
+    private final static double BYTES_IN_MEGABYTE = 1024 * 1024;
+    private final static int IN_FLIGHT_PER_THREAD = 16;
+
+    private final Path root;
+    private final List<Path> files;
+    private final TagCache tagCache;
+    private final Consumer<List<Track>> publisher;
+    private final int parallelism;
+    private final AtomicLong bytesParsed = new AtomicLong();
+    private final AtomicInteger filesFailed = new AtomicInteger();
+    private CompletionService<Track> completionService;
+    private List<Track> batch = new ArrayList<>(BATCH_SIZE);
+    private long startTime;
+    private long lastPublished;
+    private int submitted = 0;
+    private int done = 0;
+    private int imported = 0;
+
+    public LibraryImporter(Path root, TagCache tagCache, Consumer<List<Track>> publisher) {
+        this(root, null, tagCache, publisher, Runtime.getRuntime().availableProcessors());
+    }
+
+    public LibraryImporter(List<Path> files, TagCache tagCache, Consumer<List<Track>> publisher) {
+        this(null, files, tagCache, publisher, Runtime.getRuntime().availableProcessors());
+    }
+
+    public LibraryImporter(Path root, List<Path> files, TagCache tagCache, Consumer<List<Track>> publisher, int parallelism) {
+        this.root = root;
+        this.files = files;
+        this.tagCache = tagCache;
+        this.publisher = publisher;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public static boolean isSupported(Path file) {
+        return file.getFileName().toString().toLowerCase().endsWith(".mp3");
+    }
+
+    public int getFilesFailed() {
+        return filesFailed.get();
+    }
+
+    @Override
+    protected Integer call() throws Exception {
+        startTime = System.nanoTime();
+        lastPublished = startTime;
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "library-import-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        completionService = new ExecutorCompletionService<>(pool);
+        try {
+            if (root != null) {
+                walk();
+            } else {
+                for (Path file : files) {
+                    submit(file, file.toFile().length());
+                }
+            }
+            while (done < submitted && !isCancelled()) {
+                takeOne();
+            }
+            if (!isCancelled()) {
+                publish(batch);
+                reportProgress(System.nanoTime() - startTime);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+        return imported;
+    }
+
+    private void walk() throws IOException, InterruptedException {
+        updateMessage("Scanning " + root.getFileName());
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (isCancelled()) {
+                    return FileVisitResult.TERMINATE;
+                }
+                if (attributes.isRegularFile() && isSupported(file)) {
+                    try {
+                        submit(file, attributes.size());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return FileVisitResult.TERMINATE;
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    private void submit(Path file, long size) throws InterruptedException {
+        while (submitted - done >= parallelism * IN_FLIGHT_PER_THREAD && !isCancelled()) {
+            takeOne();
+        }
+        completionService.submit(() -> {
+            String filePath = file.toFile().toURI().toString();
+            Track track = tagCache != null ? tagCache.lookup(filePath) : null;
+            if (track == null) {
+                track = MP3Parser.parse(file.toFile());
+                bytesParsed.addAndGet(size);
+                if (tagCache != null) {
+                    tagCache.put(track);
+                }
+            }
+            return track;
+        });
+        ++submitted;
+    }
+
+    private void takeOne() throws InterruptedException {
+        try {
+            Track track = completionService.take().get();
+            if (track != null) {
+                batch.add(track);
+                ++imported;
+            }
+        } catch (ExecutionException e) {
+            filesFailed.incrementAndGet();
+        }
+        ++done;
+        long now = System.nanoTime();
+        if (batch.size() >= BATCH_SIZE || now - lastPublished >= BATCH_INTERVAL_NANOS) {
+            publish(batch);
+            batch = new ArrayList<>(BATCH_SIZE);
+            lastPublished = now;
+            reportProgress(now - startTime);
+        }
+    }
+
+    private void publish(List<Track> batch) {
+        if (!batch.isEmpty()) {
+            Platform.runLater(() -> publisher.accept(batch));
+        }
+    }
+
+    private void reportProgress(long elapsedNanos) {
+        double seconds = Math.max(elapsedNanos / NANOS_IN_SECOND, 1e-3);
+        int failed = filesFailed.get();
+        updateProgress(done, submitted);
+        updateMessage(String.format("%d/%d files, %.0f files/s, %.1f MB/s%s",
+                done, submitted, done / seconds, bytesParsed.get() / BYTES_IN_MEGABYTE / seconds,
+                failed > 0 ? String.format(", %d failed", failed) : ""));
+    }
+}
@@ -1,19 +1,35 @@
 package com.player.mediaplayer.utils;
 
 import com.mpatric.mp3agic.*;
+import com.player.mediaplayer.PlayerContext;
+import com.player.mediaplayer.models.ArtworkRef;
 import com.player.mediaplayer.models.Track;
-import javafx.scene.image.Image;
 
-import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 
 
 public class MP3Parser {
-    private final static int MINUTES_IN_HOUR = 60;
-    private final static int SECONDS_IN_MINUTE = 60;
+    private final static int ARTWORK_BUFFER_LENGTH = 65536;
 
     public static Track parse(File file) throws InvalidDataException, UnsupportedTagException, IOException {
+        FastMP3Parser.Header header;
+        try {
+            header = FastMP3Parser.parse(file, true);
+        } catch (InvalidDataException e) {
+            return parseFull(file);
+        }
+        return new Track(
+                parseTitle(file, header.getTitle()),
+                header.getArtist(),
+                header.getAlbum(),
+                (int) header.getDurationMillis(),
+                file.toURI().toString(),
+                header.hasArtwork() ? registerArtwork(new ArtworkRef(file.toURI().toString(), header.getArtworkOffset(), header.getArtworkLength()), header.getArtworkDigest()) : null
+        );
+    }
+
+    public static Track parseFull(File file) throws InvalidDataException, UnsupportedTagException, IOException {
 
         Mp3File mp3File = new Mp3File(file);
 
@@ -24,41 +40,45 @@ public class MP3Parser {
             tag = mp3File.getId3v1Tag();
         }
 
-        byte[] imageArray = null;
-        if (mp3File.hasId3v2Tag()) {
-            imageArray = mp3File.getId3v2Tag().getAlbumImage();
+        String artworkId = null;
+        byte[] imageArray = mp3File.hasId3v2Tag() ? mp3File.getId3v2Tag().getAlbumImage() : null;
+        if (imageArray != null) {
+            artworkId = registerArtwork(new ArtworkRef(file.toURI().toString(), -1, imageArray.length), ArtworkDigest.of(imageArray));
         }
 
-        int length = (int) Math.ceil(mp3File.getLengthInSeconds());
-
         Track mp3Track = new Track(
                 parseTitle(file, tag.getTitle()),
                 tag.getArtist(),
                 tag.getAlbum(),
-                parseSongLength(length),
+                (int) mp3File.getLengthInMilliseconds(),
                 file.toURI().toString(),
-                imageArray
+                artworkId
         );
 
         return mp3Track;
     }
 
-    public static String parseSongLength(int length) {
-        int seconds = length % SECONDS_IN_MINUTE;
-        int totalMinutes = length / SECONDS_IN_MINUTE;
-        int minutes = totalMinutes % MINUTES_IN_HOUR;
-        int hours = totalMinutes / MINUTES_IN_HOUR;
+    private static String registerArtwork(ArtworkRef location, String digest) {
+        if (digest == null) {
+            byte[] bytes = ArtworkStore.readBytes(location);
+            if (bytes == null) {
+                return null;
+            }
+            digest = ArtworkDigest.of(bytes);
+        }
+        return PlayerContext.artworkStore.getArtworkTable().register(digest, location);
+    }
 
-        String time;
-        if (hours == 0) {
-            time = String.format("%d:%2d", minutes, seconds);
-        } else {
-            time = String.format("%d:%2d:%2d", hours, minutes, seconds);
+    public static byte[] parseArtwork(File file) {
+        try {
+            Mp3File mp3File = new Mp3File(file, ARTWORK_BUFFER_LENGTH, false);
+            return mp3File.hasId3v2Tag() ? mp3File.getId3v2Tag().getAlbumImage() : null;
+        } catch (InvalidDataException | UnsupportedTagException | IOException e) {
+            return null;
         }
-        return time.replaceAll(" ", "0");
     }
 
-    private static String parseTitle(File file, String title) {
+    public static String parseTitle(File file, String title) {
         if (title == null || title.isEmpty()) {
             return file.getName().split("\\.mp3")[0];
         } else return title;
@@ -0,0 +1,199 @@
+package com.player.mediaplayer.utils;
+
+import com.player.mediaplayer.models.Track;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+public class SearchIndex {
+    private final static Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private final static Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private final static String[] NO_TOKENS = new String[0];
+    private final static int CANDIDATE_SCAN_LIMIT = 1024;
+
+    private static class Entry {
+        private final long ordinal;
+        private final String[] tokens;
+
+        Entry(long ordinal, String[] tokens) {
+            this.ordinal = ordinal;
+            this.tokens = tokens;
+        }
+    }
+
+    private final TreeMap<String, Set<Track>> postings = new TreeMap<>();
+    private final HashMap<Track, Entry> entries = new HashMap<>();
+    private final Comparator<Track> libraryOrder = Comparator.comparingLong(track -> entries.get(track).ordinal);
+    private long nextOrdinal = 0;
+
+    public SearchIndex() {}
+
+    public SearchIndex(ObservableList<Track> tracks) {
+        addAll(tracks);
+        tracks.addListener((ListChangeListener<Track>) change -> {
+            while (change.next()) {
+                if (change.wasPermutated()) {
+                    reorder(tracks);
+                    continue;
+                }
+                removeAll(change.getRemoved());
+                addAll(change.getAddedSubList());
+            }
+        });
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT).trim();
+    }
+
+    public static String[] tokenize(String text) {
+        String normalized = normalize(text);
+        return Arrays.stream(SEPARATORS.split(normalized)).filter(token -> !token.isEmpty()).toArray(String[]::new);
+    }
+
+    public synchronized void addAll(Collection<? extends Track> tracks) {
+        for (Track track : tracks) {
+            String[] tokens = trackTokens(track);
+            Entry previous = entries.put(track, new Entry(nextOrdinal++, tokens));
+            if (previous != null) {
+                unlink(track, previous);
+            }
+            for (String token : tokens) {
+                postings.computeIfAbsent(token, key -> new HashSet<>()).add(track);
+            }
+        }
+    }
+
+    public synchronized void removeAll(Collection<? extends Track> tracks) {
+        for (Track track : tracks) {
+            Entry entry = entries.remove(track);
+            if (entry != null) {
+                unlink(track, entry);
+            }
+        }
+    }
+
+    public synchronized void reindex(Collection<? extends Track> tracks) {
+        for (Track track : tracks) {
+            Entry entry = entries.get(track);
+            if (entry != null) {
+                unlink(track, entry);
+                String[] tokens = trackTokens(track);
+                entries.put(track, new Entry(entry.ordinal, tokens));
+                for (String token : tokens) {
+                    postings.computeIfAbsent(token, key -> new HashSet<>()).add(track);
+                }
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized List<Track> search(String query) {
+        String[] queryTokens = tokenize(query);
+        if (queryTokens.length == 0) {
+            return Collections.emptyList();
+        }
+        Set<Track> result = null;
+        for (String queryToken : queryTokens) {
+            Set<Track> matches = prefixMatches(queryToken, result);
+            result = matches;
+            if (result.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+        List<Track> ordered = new ArrayList<>(result);
+        ordered.sort(libraryOrder);
+        return ordered;
+    }
+
+    public synchronized boolean matches(Track track, String[] queryTokens) {
+        Entry entry = entries.get(track);
+        String[] tokens = entry != null ? entry.tokens : trackTokens(track);
+        for (String queryToken : queryTokens) {
+            boolean found = false;
+            for (String token : tokens) {
+                if (token.startsWith(queryToken)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Set<Track> prefixMatches(String prefix, Set<Track> candidates) {
+        Set<Track> matches = new HashSet<>();
+        if (candidates != null && candidates.size() <= CANDIDATE_SCAN_LIMIT) {
+            String[] queryTokens = {prefix};
+            for (Track track : candidates) {
+                if (matches(track, queryTokens)) {
+                    matches.add(track);
+                }
+            }
+            return matches;
+        }
+        NavigableMap<String, Set<Track>> range = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        for (Map.Entry<String, Set<Track>> posting : range.entrySet()) {
+            for (Track track : posting.getValue()) {
+                if (candidates == null || candidates.contains(track)) {
+                    matches.add(track);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void reorder(List<Track> tracks) {
+        for (Track track : tracks) {
+            Entry entry = entries.get(track);
+            if (entry != null) {
+                entries.put(track, new Entry(nextOrdinal++, entry.tokens));
+            }
+        }
+    }
+
+    private void unlink(Track track, Entry entry) {
+        for (String token : entry.tokens) {
+            Set<Track> tracks = postings.get(token);
+            if (tracks != null) {
+                tracks.remove(track);
+                if (tracks.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    private static String[] trackTokens(Track track) {
+        Set<String> tokens = new HashSet<>();
+        Collections.addAll(tokens, tokenize(track.getSongName()));
+        Collections.addAll(tokens, tokenize(track.getSongArtist()));
+        Collections.addAll(tokens, tokenize(track.getSongAlbum()));
+        return tokens.toArray(NO_TOKENS);
+    }
+}
@@ -0,0 +1,92 @@
+package com.player.mediaplayer.utils;
+
+import com.player.mediaplayer.models.Track;
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class SearchService {
+    private final static long DEBOUNCE_MILLIS = 150;
+
+    private final SearchIndex searchIndex;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ScheduledFuture<?> pendingSearch = null;
+    private long generation = 0;
+    private String lastQuery = null;
+    private List<Track> lastResults = null;
+
+    public SearchService(SearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    public synchronized void submit(String query, Consumer<List<Track>> onResult) {
+        cancel();
+        long searchGeneration = generation;
+        pendingSearch = executor.schedule(() -> {
+            List<Track> results = search(query);
+            if (isCurrent(searchGeneration)) {
+                Platform.runLater(() -> {
+                    if (isCurrent(searchGeneration)) {
+                        onResult.accept(results);
+                    }
+                });
+            }
+        }, DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void cancel() {
+        ++generation;
+        if (pendingSearch != null) {
+            pendingSearch.cancel(false);
+            pendingSearch = null;
+        }
+    }
+
+    public synchronized void invalidate() {
+        lastQuery = null;
+        lastResults = null;
+    }
+
+    public List<Track> search(String query) {
+        String normalizedQuery = SearchIndex.normalize(query);
+        String previousQuery;
+        List<Track> previousResults;
+        synchronized (this) {
+            previousQuery = lastQuery;
+            previousResults = lastResults;
+        }
+        String[] queryTokens = SearchIndex.tokenize(normalizedQuery);
+        List<Track> results;
+        if (previousResults != null && normalizedQuery.startsWith(previousQuery)) {
+            results = new ArrayList<>(previousResults.size());
+            for (Track track : previousResults) {
+                if (searchIndex.matches(track, queryTokens)) {
+                    results.add(track);
+                }
+            }
+        } else {
+            results = searchIndex.search(normalizedQuery);
+        }
+        synchronized (this) {
+            if (lastResults == previousResults) {
+                lastQuery = queryTokens.length > 0 ? normalizedQuery : null;
+                lastResults = queryTokens.length > 0 ? results : null;
+            }
+        }
+        return results;
+    }
+
+    private synchronized boolean isCurrent(long searchGeneration) {
+        return searchGeneration == generation;
+    }
+}
@@ -0,0 +1,146 @@
+package com.player.mediaplayer.utils;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class ShuffleOrder {
+    private final Random random;
+    private int[] order = new int[0];
+    private int[] positions = new int[0];
+    private int size = 0;
+    private int cursor = -1;
+
+    public ShuffleOrder() {
+        this(new Random());
+    }
+
+    public ShuffleOrder(Random random) {
+        this.random = random;
+    }
+
+    public void reset(int size, int current) {
+        ensureCapacity(size);
+        this.size = size;
+        for (int i = 0; i < size; ++i) {
+            order[i] = i;
+        }
+        for (int i = size - 1; i > 0; --i) {
+            int j = random.nextInt(i + 1);
+            int swapped = order[i];
+            order[i] = order[j];
+            order[j] = swapped;
+        }
+        for (int i = 0; i < size; ++i) {
+            positions[order[i]] = i;
+        }
+        cursor = -1;
+        if (current >= 0 && current < size) {
+            swap(positions[current], 0);
+            cursor = 0;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int current() {
+        return cursor >= 0 ? order[cursor] : -1;
+    }
+
+    public int peekNext() {
+        return ensureNext() ? order[cursor + 1] : -1;
+    }
+
+    public int next() {
+        return ensureNext() ? order[++cursor] : -1;
+    }
+
+    public int previous() {
+        return cursor > 0 ? order[--cursor] : -1;
+    }
+
+    public void select(int index) {
+        if (index < 0 || index >= size) {
+            return;
+        }
+        int position = positions[index];
+        if (position > cursor) {
+            swap(position, ++cursor);
+        } else {
+            cursor = position;
+        }
+    }
+
+    public void inserted(int from, int count) {
+        if (count <= 0) {
+            return;
+        }
+        ensureCapacity(size + count);
+        if (from < size) {
+            for (int i = 0; i < size; ++i) {
+                if (order[i] >= from) {
+                    order[i] += count;
+                }
+            }
+            System.arraycopy(positions, from, positions, from + count, size - from);
+        }
+        for (int index = from; index < from + count; ++index) {
+            order[size] = index;
+            positions[index] = size;
+            ++size;
+            int unplayed = size - cursor - 1;
+            swap(size - 1, cursor + 1 + random.nextInt(unplayed));
+        }
+    }
+
+    public void removed(int from, int count) {
+        if (count <= 0) {
+            return;
+        }
+        int to = from + count;
+        int kept = 0;
+        int newCursor = cursor;
+        for (int i = 0; i < size; ++i) {
+            int index = order[i];
+            if (index >= from && index < to) {
+                if (i <= cursor) {
+                    --newCursor;
+                }
+                continue;
+            }
+            order[kept++] = index >= to ? index - count : index;
+        }
+        size = kept;
+        cursor = Math.min(newCursor, size - 1);
+        for (int i = 0; i < size; ++i) {
+            positions[order[i]] = i;
+        }
+    }
+
+    private boolean ensureNext() {
+        if (size == 0) {
+            return false;
+        }
+        if (cursor + 1 >= size) {
+            reset(size, current());
+        }
+        return cursor + 1 < size;
+    }
+
+    private void swap(int a, int b) {
+        int swapped = order[a];
+        order[a] = order[b];
+        order[b] = swapped;
+        positions[order[a]] = a;
+        positions[order[b]] = b;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (order.length < capacity) {
+            int grown = Math.max(capacity, order.length + (order.length >> 1));
+            order = Arrays.copyOf(order, grown);
+            positions = Arrays.copyOf(positions, grown);
+        }
+    }
+}
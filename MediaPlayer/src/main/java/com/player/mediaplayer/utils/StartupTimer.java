@@ -0,0 +1,39 @@
+package com.player.mediaplayer.utils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class StartupTimer {
+    private final static double NANOS_IN_MILLISECOND = 1e6;
+
+    private final long originNanos;
+    private final LinkedHashMap<String, Long> stages = new LinkedHashMap<>();
+
+    public StartupTimer() {
+        long sinceProcessStart = ProcessHandle.current().info().startInstant()
+                .map(start -> Duration.between(start, Instant.now()).toNanos())
+                .orElse(0L);
+        originNanos = System.nanoTime() - Math.max(0, sinceProcessStart);
+    }
+
+    public synchronized void mark(String stage) {
+        stages.putIfAbsent(stage, System.nanoTime() - originNanos);
+    }
+
+    public synchronized double getMillis(String stage) {
+        Long nanos = stages.get(stage);
+        return nanos != null ? nanos / NANOS_IN_MILLISECOND : Double.NaN;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder builder = new StringBuilder("Startup:");
+        for (Map.Entry<String, Long> stage : stages.entrySet()) {
+            builder.append(String.format(" %s %.0f ms,", stage.getKey(), stage.getValue() / NANOS_IN_MILLISECOND));
+        }
+        builder.setLength(builder.length() - 1);
+        return builder.toString();
+    }
+}
@@ -0,0 +1,347 @@
+package com.player.mediaplayer.utils;
+
+import com.player.mediaplayer.models.PlayerState;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+public class StateFile {
+    private final static int MAGIC = 0x574C4658;
+    private final static int VERSION = 1;
+    private final static int HEADER_SIZE = 12;
+    private final static int SECTION_HEADER_SIZE = 8;
+    private final static int INITIAL_SECTION_SIZE = 64 * 1024;
+    private final static int SECTION_STRINGS = 1;
+    private final static int SECTION_TRACKS = 2;
+    private final static int SECTION_PLAYLISTS = 3;
+    private final static int SECTION_SETTINGS = 4;
+    private final static int SECTION_JOURNAL = 5;
+    private final static int FLAG_LIKED = 1;
+    private final static int FLAG_TAGS = 2;
+
+    private static class Output {
+        private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_SECTION_SIZE);
+
+        private void ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+                buffer.flip();
+                grown.put(buffer);
+                buffer = grown;
+            }
+        }
+
+        void putByte(int value) {
+            ensure(1);
+            buffer.put((byte) value);
+        }
+
+        void putDouble(double value) {
+            ensure(Double.BYTES);
+            buffer.putDouble(value);
+        }
+
+        void putLong(long value) {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void putVarInt(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        void putString(String value) {
+            if (value == null) {
+                putVarInt(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putVarInt(bytes.length + 1);
+            ensure(bytes.length);
+            buffer.put(bytes);
+        }
+
+        ByteBuffer toByteBuffer() {
+            return buffer.duplicate().flip();
+        }
+    }
+
+    private static class Input {
+        private final ByteBuffer buffer;
+
+        Input(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        int getByte() {
+            return buffer.get() & 0xFF;
+        }
+
+        double getDouble() {
+            return buffer.getDouble();
+        }
+
+        long getLong() {
+            return buffer.getLong();
+        }
+
+        int getVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = buffer.get();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed state file");
+        }
+
+        String getString() throws IOException {
+            int length = getVarInt() - 1;
+            if (length < 0) {
+                return null;
+            }
+            if (length > buffer.remaining()) {
+                throw new IOException("Malformed state file");
+            }
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+    }
+
+    private static class StringDictionary {
+        private final HashMap<String, Integer> ids = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+
+        int idOf(String value) {
+            if (value == null) {
+                return 0;
+            }
+            Integer id = ids.get(value);
+            if (id == null) {
+                strings.add(value);
+                id = strings.size();
+                ids.put(value, id);
+            }
+            return id;
+        }
+
+        Output write() {
+            Output output = new Output();
+            output.putVarInt(strings.size());
+            for (String value : strings) {
+                output.putString(value);
+            }
+            return output;
+        }
+    }
+
+    private StateFile() {}
+
+    public static void write(Path path, PlayerState state) throws IOException {
+        StringDictionary strings = new StringDictionary();
+        Output tracks = writeTracks(state, strings);
+        Output playlists = writePlaylists(state);
+        Output settings = writeSettings(state);
+        Output journal = new Output();
+        journal.putLong(state.journalGeneration);
+        Output dictionary = strings.write();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).putInt(5).flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, header);
+            writeSection(channel, SECTION_STRINGS, dictionary);
+            writeSection(channel, SECTION_TRACKS, tracks);
+            writeSection(channel, SECTION_PLAYLISTS, playlists);
+            writeSection(channel, SECTION_SETTINGS, settings);
+            writeSection(channel, SECTION_JOURNAL, journal);
+            channel.force(false);
+        }
+    }
+
+    public static void writeAtomically(Path path, PlayerState state) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            write(temporary, state);
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    public static PlayerState read(Path path) throws IOException {
+        PlayerState state = new PlayerState();
+        List<String> strings = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = readFully(channel, HEADER_SIZE);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a state file: " + path);
+            }
+            int version = header.getInt();
+            if (version > VERSION) {
+                throw new IOException("Unsupported state file version " + version);
+            }
+            int sections = header.getInt();
+            for (int section = 0; section < sections; ++section) {
+                ByteBuffer sectionHeader = readFully(channel, SECTION_HEADER_SIZE);
+                int sectionId = sectionHeader.getInt();
+                int length = sectionHeader.getInt();
+                if (length < 0 || length > channel.size() - channel.position()) {
+                    throw new IOException("Truncated state file: " + path);
+                }
+                Input input = new Input(readFully(channel, length));
+                try {
+                    switch (sectionId) {
+                        case SECTION_STRINGS -> readStrings(input, strings);
+                        case SECTION_TRACKS -> readTracks(input, strings, state);
+                        case SECTION_PLAYLISTS -> readPlaylists(input, state);
+                        case SECTION_SETTINGS -> readSettings(input, state);
+                        case SECTION_JOURNAL -> state.journalGeneration = input.getLong();
+                        default -> { }
+                    }
+                } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                    throw new IOException("Malformed state file section " + sectionId, e);
+                }
+            }
+        }
+        return state;
+    }
+
+    private static Output writeTracks(PlayerState state, StringDictionary strings) {
+        Output output = new Output();
+        output.putVarInt(state.allTracks.size());
+        for (PlayerState.SerializableTrack track : state.allTracks) {
+            output.putVarInt(track.getId());
+            String path = track.getPath();
+            int separator = path.lastIndexOf('/') + 1;
+            output.putVarInt(strings.idOf(path.substring(0, separator)));
+            output.putString(path.substring(separator));
+            int flags = (Boolean.TRUE.equals(track.getSongLiked()) ? FLAG_LIKED : 0) | (track.hasTags() ? FLAG_TAGS : 0);
+            output.putByte(flags);
+            if (track.hasTags()) {
+                output.putString(track.getSongName());
+                output.putVarInt(strings.idOf(track.getSongArtist()));
+                output.putVarInt(strings.idOf(track.getSongAlbum()));
+                output.putVarInt(track.getSongDurationMillis());
+                output.putVarInt(strings.idOf(track.getSongArtworkId()));
+            }
+        }
+        return output;
+    }
+
+    private static Output writePlaylists(PlayerState state) {
+        Output output = new Output();
+        output.putVarInt(state.playLists.size());
+        for (PlayerState.SerializablePlayList playList : state.playLists) {
+            output.putString(playList.getName());
+            output.putVarInt(playList.getTrackIds().length);
+            for (int trackId : playList.getTrackIds()) {
+                output.putVarInt(trackId);
+            }
+        }
+        return output;
+    }
+
+    private static Output writeSettings(PlayerState state) {
+        Output output = new Output();
+        output.putVarInt(state.currentTrackID + 1);
+        output.putDouble(state.currentVolume);
+        output.putByte(state.isShuffling ? 1 : 0);
+        output.putByte(state.isRepeating ? 1 : 0);
+        return output;
+    }
+
+    private static void readStrings(Input input, List<String> strings) throws IOException {
+        int count = input.getVarInt();
+        strings.clear();
+        strings.add(null);
+        for (int i = 0; i < count; ++i) {
+            strings.add(input.getString());
+        }
+    }
+
+    private static void readTracks(Input input, List<String> strings, PlayerState state) throws IOException {
+        int count = input.getVarInt();
+        state.allTracks = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            int trackId = input.getVarInt();
+            String path = strings.get(input.getVarInt()) + input.getString();
+            int flags = input.getByte();
+            PlayerState.SerializableTrack track = new PlayerState.SerializableTrack(path, (flags & FLAG_LIKED) != 0);
+            track.setId(trackId);
+            if ((flags & FLAG_TAGS) != 0) {
+                String songName = input.getString();
+                String songArtist = strings.get(input.getVarInt());
+                String songAlbum = strings.get(input.getVarInt());
+                int songDuration = input.getVarInt();
+                String songArtworkId = strings.get(input.getVarInt());
+                track.setTags(songName, songArtist, songAlbum, songDuration, songArtworkId);
+            }
+            state.allTracks.add(track);
+        }
+    }
+
+    private static void readPlaylists(Input input, PlayerState state) throws IOException {
+        int count = input.getVarInt();
+        state.playLists = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            String name = input.getString();
+            int size = input.getVarInt();
+            int[] trackIds = new int[size];
+            for (int j = 0; j < size; ++j) {
+                trackIds[j] = input.getVarInt();
+            }
+            state.playLists.add(new PlayerState.SerializablePlayList(name, trackIds));
+        }
+    }
+
+    private static void readSettings(Input input, PlayerState state) throws IOException {
+        state.currentTrackID = input.getVarInt() - 1;
+        state.currentVolume = input.getDouble();
+        state.isShuffling = input.getByte() != 0;
+        state.isRepeating = input.getByte() != 0;
+    }
+
+    private static void writeSection(FileChannel channel, int sectionId, Output section) throws IOException {
+        ByteBuffer payload = section.toByteBuffer();
+        ByteBuffer sectionHeader = ByteBuffer.allocate(SECTION_HEADER_SIZE).putInt(sectionId).putInt(payload.remaining()).flip();
+        ByteBuffer[] buffers = {sectionHeader, payload};
+        while (sectionHeader.hasRemaining() || payload.hasRemaining()) {
+            channel.write(buffers);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException();
+            }
+        }
+        return buffer.flip();
+    }
+}
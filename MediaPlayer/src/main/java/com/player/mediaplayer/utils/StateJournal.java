@@ -0,0 +1,426 @@
+package com.player.mediaplayer.utils;
+
+import com.player.mediaplayer.models.PlayerState;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+public class StateJournal {
+    private final static int TRACK_ADDED = 1;
+    private final static int TRACK_REMOVED = 2;
+    private final static int TRACK_LIKED = 3;
+    private final static int PLAYLIST_ADDED = 4;
+    private final static int PLAYLIST_REMOVED = 5;
+    private final static int PLAYLIST_RENAMED = 6;
+    private final static int PLAYLIST_TRACK_ADDED = 7;
+    private final static int PLAYLIST_TRACK_REMOVED = 8;
+    private final static int SETTINGS_CHANGED = 9;
+    private final static int TRACKS_ADDED = 10;
+    private final static int TRACKS_REMOVED = 11;
+    private final static int PLAYLIST_TRACKS_ADDED = 12;
+    private final static int RECORD_HEADER_SIZE = 8;
+    private final static int MAX_RECORD_SIZE = 64 * 1024 * 1024;
+    private final static Object ROTATE = new Object();
+
+    public interface Mutations {
+        void trackAdded(PlayerState.SerializableTrack track);
+        void trackRemoved(String path);
+        void trackLiked(String path, boolean liked);
+        void playListAdded(String name, List<String> paths);
+        void playListRemoved(int index);
+        void playListRenamed(int index, String name);
+        void playListTrackAdded(int index, String path);
+        void playListTrackRemoved(int index, String path);
+        void settingsChanged(int currentTrackID, double volume, boolean shuffling, boolean repeating);
+        void tracksAdded(List<PlayerState.SerializableTrack> tracks);
+        void tracksRemoved(List<String> paths);
+        void playListTracksAdded(int index, List<String> paths);
+    }
+
+    private interface RecordBody {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private final Path base;
+    private final ArrayList<Object> pending = new ArrayList<>();
+    private final AtomicLong size = new AtomicLong(0);
+    private final Thread writer;
+    private int pendingSettings = -1;
+    private long generation;
+    private long appended = 0;
+    private long written = 0;
+    private boolean closed = false;
+    private FileChannel channel;
+    private long channelGeneration;
+
+    public StateJournal(Path base, long minimumGeneration) throws IOException {
+        this.base = base;
+        List<Long> generations = generations(base);
+        long next = generations.isEmpty() ? 0 : generations.get(generations.size() - 1) + 1;
+        generation = Math.max(next, minimumGeneration);
+        channelGeneration = generation;
+        channel = open(generation);
+        writer = new Thread(this::writeLoop, "state-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public void trackAdded(PlayerState.SerializableTrack track) {
+        append(TRACK_ADDED, out -> writeTrack(out, track));
+    }
+
+    public void tracksAdded(List<PlayerState.SerializableTrack> tracks) {
+        append(TRACKS_ADDED, out -> {
+            out.writeInt(tracks.size());
+            for (PlayerState.SerializableTrack track : tracks) {
+                writeTrack(out, track);
+            }
+        });
+    }
+
+    public void trackRemoved(String path) {
+        append(TRACK_REMOVED, out -> writeString(out, path));
+    }
+
+    public void tracksRemoved(List<String> paths) {
+        append(TRACKS_REMOVED, out -> writeStrings(out, paths));
+    }
+
+    public void trackLiked(String path, boolean liked) {
+        append(TRACK_LIKED, out -> {
+            writeString(out, path);
+            out.writeBoolean(liked);
+        });
+    }
+
+    public void playListAdded(String name, List<String> paths) {
+        append(PLAYLIST_ADDED, out -> {
+            writeString(out, name);
+            writeStrings(out, paths);
+        });
+    }
+
+    public void playListRemoved(int index) {
+        append(PLAYLIST_REMOVED, out -> out.writeInt(index));
+    }
+
+    public void playListRenamed(int index, String name) {
+        append(PLAYLIST_RENAMED, out -> {
+            out.writeInt(index);
+            writeString(out, name);
+        });
+    }
+
+    public void playListTrackAdded(int index, String path) {
+        append(PLAYLIST_TRACK_ADDED, out -> {
+            out.writeInt(index);
+            writeString(out, path);
+        });
+    }
+
+    public void playListTracksAdded(int index, List<String> paths) {
+        append(PLAYLIST_TRACKS_ADDED, out -> {
+            out.writeInt(index);
+            writeStrings(out, paths);
+        });
+    }
+
+    public void playListTrackRemoved(int index, String path) {
+        append(PLAYLIST_TRACK_REMOVED, out -> {
+            out.writeInt(index);
+            writeString(out, path);
+        });
+    }
+
+    public void settingsChanged(int currentTrackID, double volume, boolean shuffling, boolean repeating) {
+        byte[] record = encode(SETTINGS_CHANGED, out -> {
+            out.writeInt(currentTrackID);
+            out.writeDouble(volume);
+            out.writeBoolean(shuffling);
+            out.writeBoolean(repeating);
+        });
+        synchronized (this) {
+            if (pendingSettings >= 0 && pendingSettings == pending.size() - 1) {
+                pending.set(pendingSettings, record);
+                return;
+            }
+            pendingSettings = pending.size();
+            enqueue(record);
+        }
+    }
+
+    public synchronized long rotate() {
+        pendingSettings = -1;
+        enqueue(ROTATE);
+        return ++generation;
+    }
+
+    public long getSize() {
+        return size.get();
+    }
+
+    public synchronized void flush() throws InterruptedException {
+        long target = appended;
+        while (written < target && writer.isAlive()) {
+            wait();
+        }
+    }
+
+    public void close() throws InterruptedException {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        writer.join();
+    }
+
+    public void deleteBefore(long generation) {
+        for (long existing : generations(base)) {
+            if (existing < generation) {
+                try {
+                    Files.deleteIfExists(file(base, existing));
+                } catch (IOException e) {
+                    System.out.println(e);
+                }
+            }
+        }
+    }
+
+    public static void replay(Path base, long fromGeneration, Mutations mutations) throws IOException {
+        for (long generation : generations(base)) {
+            if (generation >= fromGeneration) {
+                replayFile(file(base, generation), mutations);
+            }
+        }
+    }
+
+    private static void replayFile(Path file, Mutations mutations) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > MAX_RECORD_SIZE || length > buffer.remaining()) {
+                return;
+            }
+            crc.reset();
+            crc.update(buffer.array(), buffer.position(), length);
+            if ((int) crc.getValue() != checksum) {
+                return;
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.array(), buffer.position(), length));
+            buffer.position(buffer.position() + length);
+            apply(in, mutations);
+        }
+    }
+
+    private static void apply(DataInputStream in, Mutations mutations) throws IOException {
+        switch (in.readUnsignedByte()) {
+            case TRACK_ADDED -> mutations.trackAdded(readTrack(in));
+            case TRACKS_ADDED -> {
+                int size = in.readInt();
+                List<PlayerState.SerializableTrack> tracks = new ArrayList<>();
+                for (int i = 0; i < size; ++i) {
+                    tracks.add(readTrack(in));
+                }
+                mutations.tracksAdded(tracks);
+            }
+            case TRACK_REMOVED -> mutations.trackRemoved(readString(in));
+            case TRACKS_REMOVED -> mutations.tracksRemoved(readStrings(in));
+            case TRACK_LIKED -> mutations.trackLiked(readString(in), in.readBoolean());
+            case PLAYLIST_ADDED -> mutations.playListAdded(readString(in), readStrings(in));
+            case PLAYLIST_TRACKS_ADDED -> mutations.playListTracksAdded(in.readInt(), readStrings(in));
+            case PLAYLIST_REMOVED -> mutations.playListRemoved(in.readInt());
+            case PLAYLIST_RENAMED -> mutations.playListRenamed(in.readInt(), readString(in));
+            case PLAYLIST_TRACK_ADDED -> mutations.playListTrackAdded(in.readInt(), readString(in));
+            case PLAYLIST_TRACK_REMOVED -> mutations.playListTrackRemoved(in.readInt(), readString(in));
+            case SETTINGS_CHANGED -> mutations.settingsChanged(in.readInt(), in.readDouble(), in.readBoolean(), in.readBoolean());
+            default -> { }
+        }
+    }
+
+    private void append(int type, RecordBody body) {
+        byte[] record = encode(type, body);
+        synchronized (this) {
+            enqueue(record);
+        }
+    }
+
+    private void enqueue(Object item) {
+        pending.add(item);
+        ++appended;
+        notifyAll();
+    }
+
+    private void writeLoop() {
+        while (true) {
+            List<Object> batch;
+            synchronized (this) {
+                while (pending.isEmpty() && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.isEmpty()) {
+                    break;
+                }
+                batch = new ArrayList<>(pending);
+                pending.clear();
+                pendingSettings = -1;
+            }
+            try {
+                write(batch);
+            } catch (IOException e) {
+                System.out.println(e);
+            }
+            synchronized (this) {
+                written += batch.size();
+                notifyAll();
+            }
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.out.println(e);
+        }
+    }
+
+    private void write(List<Object> batch) throws IOException {
+        List<ByteBuffer> records = new ArrayList<>();
+        for (Object item : batch) {
+            if (item == ROTATE) {
+                writeRecords(records);
+                channel.close();
+                channel = open(++channelGeneration);
+                size.set(0);
+            } else {
+                byte[] record = (byte[]) item;
+                records.add(ByteBuffer.wrap(record));
+                size.addAndGet(record.length);
+            }
+        }
+        writeRecords(records);
+    }
+
+    private void writeRecords(List<ByteBuffer> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        ByteBuffer[] buffers = records.toArray(new ByteBuffer[0]);
+        ByteBuffer last = buffers[buffers.length - 1];
+        while (last.hasRemaining()) {
+            channel.write(buffers);
+        }
+        channel.force(false);
+        records.clear();
+    }
+
+    private FileChannel open(long generation) throws IOException {
+        return FileChannel.open(file(base, generation), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static byte[] encode(int type, RecordBody body) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeByte(type);
+            body.write(out);
+            ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+            int length = record.capacity() - RECORD_HEADER_SIZE;
+            CRC32 crc = new CRC32();
+            crc.update(record.array(), RECORD_HEADER_SIZE, length);
+            record.putInt(0, length).putInt(4, (int) crc.getValue());
+            return record.array();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < size; ++i) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    private static void writeTrack(DataOutputStream out, PlayerState.SerializableTrack track) throws IOException {
+        writeString(out, track.getPath());
+        out.writeBoolean(Boolean.TRUE.equals(track.getSongLiked()));
+        out.writeBoolean(track.hasTags());
+        if (track.hasTags()) {
+            writeString(out, track.getSongName());
+            writeString(out, track.getSongArtist());
+            writeString(out, track.getSongAlbum());
+            out.writeInt(track.getSongDurationMillis());
+            writeString(out, track.getSongArtworkId());
+        }
+    }
+
+    private static PlayerState.SerializableTrack readTrack(DataInputStream in) throws IOException {
+        PlayerState.SerializableTrack track = new PlayerState.SerializableTrack(readString(in), in.readBoolean());
+        if (in.readBoolean()) {
+            track.setTags(readString(in), readString(in), readString(in), in.readInt(), readString(in));
+        }
+        return track;
+    }
+
+    private static Path file(Path base, long generation) {
+        return base.resolveSibling(base.getFileName() + "." + generation);
+    }
+
+    private static List<Long> generations(Path base) {
+        Path directory = base.toAbsolutePath().getParent();
+        String prefix = base.getFileName() + ".";
+        List<Long> generations = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString()).filter(name -> name.startsWith(prefix)).forEach(name -> {
+                try {
+                    generations.add(Long.parseLong(name.substring(prefix.length())));
+                } catch (NumberFormatException ignored) {
+                }
+            });
+        } catch (IOException e) {
+            System.out.println(e);
+        }
+        generations.sort(null);
+        return generations;
+    }
+}
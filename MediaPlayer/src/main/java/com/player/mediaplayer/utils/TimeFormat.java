@@ -0,0 +1,46 @@
+package com.player.mediaplayer.utils;
+
+public class TimeFormat {
+    private final static int SECONDS_IN_MINUTE = 60;
+    private final static int MINUTES_IN_HOUR = 60;
+    private final static int CACHED_SECONDS = 4 * 60 * 60;
+    private final static String[] cache = new String[CACHED_SECONDS];
+
+    private TimeFormat() {}
+
+    public static String format(int length) {
+        if (length < 0) {
+            length = 0;
+        }
+        if (length >= CACHED_SECONDS) {
+            return build(length);
+        }
+        String time = cache[length];
+        if (time == null) {
+            time = build(length);
+            cache[length] = time;
+        }
+        return time;
+    }
+
+    private static String build(int length) {
+        int seconds = length % SECONDS_IN_MINUTE;
+        int totalMinutes = length / SECONDS_IN_MINUTE;
+        int minutes = totalMinutes % MINUTES_IN_HOUR;
+        int hours = totalMinutes / MINUTES_IN_HOUR;
+        StringBuilder builder = new StringBuilder(8);
+        if (hours == 0) {
+            builder.append(minutes);
+        } else {
+            builder.append(hours).append(':');
+            appendTwoDigits(builder, minutes);
+        }
+        builder.append(':');
+        appendTwoDigits(builder, seconds);
+        return builder.toString();
+    }
+
+    private static void appendTwoDigits(StringBuilder builder, int value) {
+        builder.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+}
@@ -4,6 +4,7 @@ module com.player.mediaplayer {
 
     requires org.controlsfx.controls;
     requires com.dlsc.formsfx;
+    requires org.kordamp.ikonli.core;
     requires org.kordamp.ikonli.javafx;
     requires org.kordamp.bootstrapfx.core;
     requires mp3agic;
@@ -0,0 +1,142 @@
+package com.player.mediaplayer;
+
+import com.player.mediaplayer.controllers.RowNumberCell;
+import com.player.mediaplayer.models.PlaylistView;
+import com.player.mediaplayer.models.SortedPlaylistView;
+import com.player.mediaplayer.models.Track;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.Scene;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.Stage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+
+public class ContentPaneBenchmark {
+    private final static int[] SIZES = {1_000, 10_000, 100_000};
+    private final static int ROUNDS = 5;
+    private final static int SCROLL_ROWS = 100_000;
+    private final static int SCROLL_STEPS = 500;
+    private final static int SCROLL_STEP_ROWS = 37;
+
+    public static void main(String[] args) throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        started.await();
+        for (int size : SIZES) {
+            List<Track> first = tracks("A", size);
+            List<Track> second = tracks("B", size);
+            double before = onFxThread(() -> measureCopyingSwitch(first, second));
+            double after = onFxThread(() -> measureViewSwitch(first, second));
+            System.out.printf("%,7d rows: copy per track %8.2f ms, view switch %8.2f ms%n", size, before, after);
+        }
+        List<Track> rows = tracks("S", SCROLL_ROWS);
+        double indexOfNumbering = onFxThread(() -> measureScroll(rows, false));
+        double cellNumbering = onFxThread(() -> measureScroll(rows, true));
+        System.out.printf("Scrolling %,d rows: indexOf numbering %.3f ms/frame, row index numbering %.3f ms/frame%n",
+                SCROLL_ROWS, indexOfNumbering, cellNumbering);
+        Platform.exit();
+    }
+
+    private static double measureCopyingSwitch(List<Track> first, List<Track> second) {
+        TableView<Track> table = table();
+        ObservableList<Track> selected = FXCollections.observableArrayList();
+        selected.addListener((InvalidationListener) observable -> {
+            table.getItems().clear();
+            for (Track track : selected) {
+                table.getItems().add(track);
+            }
+            table.getSelectionModel().select(first.get(0));
+        });
+        return measure(table, () -> {
+            selected.clear();
+            selected.addAll(first);
+        }, () -> {
+            selected.clear();
+            selected.addAll(second);
+        });
+    }
+
+    private static double measureViewSwitch(List<Track> first, List<Track> second) {
+        TableView<Track> table = table();
+        PlaylistView selected = new PlaylistView();
+        table.setItems(new SortedPlaylistView(selected));
+        ObservableList<Track> firstSource = FXCollections.observableList(first);
+        ObservableList<Track> secondSource = FXCollections.observableList(second);
+        return measure(table, () -> selected.setSource(firstSource), () -> selected.setSource(secondSource));
+    }
+
+    private static double measure(TableView<Track> table, Runnable showFirst, Runnable showSecond) {
+        long total = 0;
+        for (int round = 0; round < ROUNDS; ++round) {
+            long start = System.nanoTime();
+            showFirst.run();
+            table.applyCss();
+            table.layout();
+            showSecond.run();
+            table.applyCss();
+            table.layout();
+            total += System.nanoTime() - start;
+        }
+        ((Stage) table.getScene().getWindow()).close();
+        return total / 1e6 / ROUNDS / 2;
+    }
+
+    private static double measureScroll(List<Track> rows, boolean rowIndexNumbering) {
+        TableView<Track> table = table();
+        TableColumn<Track, String> number = new TableColumn<>("#");
+        if (rowIndexNumbering) {
+            number.setCellFactory(column -> new RowNumberCell<>());
+        } else {
+            number.setCellValueFactory(item -> new ReadOnlyObjectWrapper<>(table.getItems().indexOf(item.getValue()) + 1 + ""));
+        }
+        table.getColumns().add(0, number);
+        table.getItems().setAll(rows);
+        table.applyCss();
+        table.layout();
+        long start = System.nanoTime();
+        for (int step = 0; step < SCROLL_STEPS; ++step) {
+            table.scrollTo(step * SCROLL_STEP_ROWS % rows.size());
+            table.layout();
+        }
+        long elapsed = System.nanoTime() - start;
+        ((Stage) table.getScene().getWindow()).close();
+        return elapsed / 1e6 / SCROLL_STEPS;
+    }
+
+    static TableView<Track> table() {
+        TableView<Track> table = new TableView<>();
+        for (String property : new String[]{"SongName", "SongArtist", "SongAlbum", "SongDuration"}) {
+            TableColumn<Track, String> column = new TableColumn<>(property);
+            column.setCellValueFactory(new PropertyValueFactory<>(property));
+            table.getColumns().add(column);
+        }
+        Stage stage = new Stage();
+        stage.setScene(new Scene(table, 1366, 768));
+        stage.show();
+        return table;
+    }
+
+    static List<Track> tracks(String prefix, int size) {
+        List<Track> tracks = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            tracks.add(new Track(prefix + " track " + i, "Artist " + i % 500, "Album " + i % 2000, 185_000, prefix + i + ".mp3", null));
+        }
+        return tracks;
+    }
+
+    static <T> T onFxThread(Callable<T> callable) throws Exception {
+        FutureTask<T> task = new FutureTask<>(callable);
+        Platform.runLater(task);
+        return task.get();
+    }
+}
@@ -0,0 +1,54 @@
+package com.player.mediaplayer;
+
+import com.player.mediaplayer.utils.FastMP3Parser;
+import com.player.mediaplayer.utils.MP3Parser;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class MP3ParserBenchmark {
+    private final static int TRACKS = 200;
+    private final static int FRAMES_PER_TRACK = 9000;
+    private final static int ARTWORK_SIZE = 500 * 1024;
+    private final static int ARTWORKS = 20;
+
+    public static void main(String[] args) throws Exception {
+        File directory = Files.createTempDirectory("mp3-corpus").toFile();
+        List<File> corpus = new ArrayList<>();
+        byte[][] artworks = new byte[ARTWORKS][ARTWORK_SIZE];
+        for (byte[] artwork : artworks) {
+            ThreadLocalRandom.current().nextBytes(artwork);
+        }
+        for (int i = 0; i < TRACKS; ++i) {
+            File file = new File(directory, "track" + i + ".mp3");
+            new SyntheticMp3().title("Track " + i).artist("Artist " + i % 20).album("Album " + i % 40)
+                    .artwork(artworks[i % ARTWORKS]).frames(FRAMES_PER_TRACK).xingHeader(i % 2 == 0).write(file);
+            file.deleteOnExit();
+            corpus.add(file);
+        }
+        long corpusBytes = corpus.stream().mapToLong(File::length).sum();
+        System.out.printf("Corpus: %d files, %.1f MB%n", TRACKS, corpusBytes / 1024.0 / 1024.0);
+
+        for (int round = 0; round < 3; ++round) {
+            long start = System.nanoTime();
+            for (File file : corpus) {
+                MP3Parser.parseFull(file);
+            }
+            long fullNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long bytesRead = 0;
+            for (File file : corpus) {
+                bytesRead += FastMP3Parser.parse(file, true).getBytesRead();
+                MP3Parser.parse(file);
+            }
+            long fastNanos = System.nanoTime() - start;
+
+            System.out.printf("Round %d: full scan %.2f ms/file, header and artwork digest %.3f ms/file, %.1f KB read per file%n",
+                    round, fullNanos / 1e6 / TRACKS, fastNanos / 2e6 / TRACKS, bytesRead / 1024.0 / TRACKS);
+        }
+    }
+}
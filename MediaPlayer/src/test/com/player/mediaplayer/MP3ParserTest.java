@@ -0,0 +1,112 @@
+package com.player.mediaplayer;
+
+import com.mpatric.mp3agic.InvalidDataException;
+import com.mpatric.mp3agic.UnsupportedTagException;
+import com.player.mediaplayer.models.ArtworkTable;
+import com.player.mediaplayer.models.Track;
+import com.player.mediaplayer.utils.ArtworkDigest;
+import com.player.mediaplayer.utils.FastMP3Parser;
+import com.player.mediaplayer.utils.MP3Parser;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+public class MP3ParserTest {
+    @Test
+    public void testFastParserMatchesFullParser() throws IOException, InvalidDataException, UnsupportedTagException {
+
+        //
+        // Given
+        //
+        File file = new SyntheticMp3().title("Yesterday").artist("Beatles").album("Help!").frames(5000)
+                .write(File.createTempFile("cbr", ".mp3"));
+        file.deleteOnExit();
+
+        //
+        // When
+        //
+        Track fastTrack = MP3Parser.parse(file);
+        Track fullTrack = MP3Parser.parseFull(file);
+
+        //
+        // Then
+        //
+        assert(
+                Objects.equals(fastTrack.getSongName(), fullTrack.getSongName()) &&
+                        Objects.equals(fastTrack.getSongArtist(), fullTrack.getSongArtist()) &&
+                        Objects.equals(fastTrack.getSongAlbum(), fullTrack.getSongAlbum()) &&
+                        Objects.equals(fastTrack.getSongDuration(), fullTrack.getSongDuration())
+        );
+    }
+
+    @Test
+    public void testFastParserReadsXingHeaderAndArtwork() throws IOException, InvalidDataException {
+
+        //
+        // Given
+        //
+        byte[] artwork = new byte[300_000];
+        Arrays.fill(artwork, (byte) 7);
+        SyntheticMp3 mp3 = new SyntheticMp3().title("Help!").artwork(artwork).frames(20000).xingHeader(true);
+        File file = mp3.write(File.createTempFile("vbr", ".mp3"));
+        file.deleteOnExit();
+
+        //
+        // When
+        //
+        FastMP3Parser.Header header = FastMP3Parser.parse(file);
+        byte[] storedArtwork = new byte[header.getArtworkLength()];
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            in.seek(header.getArtworkOffset());
+            in.readFully(storedArtwork);
+        }
+
+        //
+        // Then
+        //
+        assert(
+                header.getDurationMillis() == mp3.durationMillis() &&
+                        header.hasArtwork() &&
+                        Arrays.equals(storedArtwork, artwork) &&
+                        header.getBytesRead() < 32 * 1024
+        );
+    }
+
+    @Test
+    public void testAlbumArtworkIsStoredOnce() throws IOException, InvalidDataException, UnsupportedTagException {
+
+        //
+        // Given
+        //
+        byte[] artwork = new byte[100_000];
+        Arrays.fill(artwork, (byte) 42);
+        ArtworkTable artworkTable = PlayerContext.artworkStore.getArtworkTable();
+        int distinctImages = artworkTable.getDistinctImages();
+        List<Track> tracks = new ArrayList<>();
+
+        //
+        // When
+        //
+        for (int i = 0; i < 12; ++i) {
+            File file = new SyntheticMp3().title("Track " + i).album("Album").artwork(artwork).frames(100)
+                    .write(File.createTempFile("album", ".mp3"));
+            file.deleteOnExit();
+            tracks.add(MP3Parser.parse(file));
+        }
+
+        //
+        // Then
+        //
+        assert(
+                artworkTable.getDistinctImages() == distinctImages + 1 &&
+                        tracks.stream().map(Track::getSongArtworkId).distinct().count() == 1 &&
+                        tracks.get(0).getSongArtworkId().equals(ArtworkDigest.of(artwork))
+        );
+    }
+}
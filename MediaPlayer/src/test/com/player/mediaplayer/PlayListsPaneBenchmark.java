@@ -0,0 +1,98 @@
+package com.player.mediaplayer;
+
+import com.player.mediaplayer.controllers.PlayListsPaneController;
+import com.player.mediaplayer.models.PlayList;
+import com.player.mediaplayer.models.Player;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.ListView;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.cell.TextFieldListCell;
+import javafx.stage.Stage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+public class PlayListsPaneBenchmark {
+    private final static int PLAYLISTS = 1_000;
+    private final static int MUTATIONS = 200;
+
+    public static void main(String[] args) throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        started.await();
+        double before = ContentPaneBenchmark.onFxThread(PlayListsPaneBenchmark::measureRebuildingList);
+        double after = ContentPaneBenchmark.onFxThread(PlayListsPaneBenchmark::measureBoundList);
+        System.out.printf("%,d playlists: rebuild per change %.3f ms/mutation, bound list %.3f ms/mutation%n", PLAYLISTS, before, after);
+        Platform.exit();
+    }
+
+    private static double measureRebuildingList() {
+        ObservableList<PlayList> playLists = FXCollections.observableArrayList(playLists());
+        ListView<PlayList> listView = new ListView<>();
+        listView.setCellFactory(lv -> {
+            TextFieldListCell<PlayList> cell = new TextFieldListCell<>();
+            ContextMenu contextMenu = new ContextMenu();
+            for (String text : new String[]{"Add to queue", "Rename", "Delete", "Export playlist"}) {
+                MenuItem item = new MenuItem(text);
+                item.setOnAction(actionEvent -> cell.getItem());
+                contextMenu.getItems().add(item);
+            }
+            cell.emptyProperty().addListener((obs, wasEmpty, isNowEmpty) -> cell.setContextMenu(isNowEmpty ? null : contextMenu));
+            return cell;
+        });
+        playLists.addListener((InvalidationListener) observable -> {
+            listView.getItems().clear();
+            for (PlayList playList : playLists) {
+                listView.getItems().add(playList);
+            }
+        });
+        listView.getItems().setAll(playLists);
+        return measure(listView, playLists::add, playLists::remove);
+    }
+
+    private static double measureBoundList() {
+        Player player = PlayerContext.player;
+        player.getPlayLists().setAll(playLists());
+        PlayListsPaneController controller = new PlayListsPaneController();
+        controller.playListsListView = new ListView<>();
+        controller.addPlayListButton = new Button();
+        controller.importPlayListButton = new Button();
+        controller.initialize(null, null);
+        return measure(controller.playListsListView, player::addPlayList, player::removePlayList);
+    }
+
+    private static double measure(ListView<PlayList> listView, Consumer<PlayList> add, Consumer<PlayList> remove) {
+        Stage stage = new Stage();
+        stage.setScene(new Scene(listView, 300, 768));
+        stage.show();
+        listView.applyCss();
+        listView.layout();
+        long start = System.nanoTime();
+        for (int i = 0; i < MUTATIONS; ++i) {
+            PlayList playList = new PlayList("Added " + i, null);
+            add.accept(playList);
+            listView.layout();
+            remove.accept(playList);
+            listView.layout();
+        }
+        long elapsed = System.nanoTime() - start;
+        stage.close();
+        return elapsed / 1e6 / MUTATIONS / 2;
+    }
+
+    private static List<PlayList> playLists() {
+        List<PlayList> playLists = new ArrayList<>(PLAYLISTS);
+        for (int i = 0; i < PLAYLISTS; ++i) {
+            playLists.add(new PlayList("Playlist " + i, null));
+        }
+        return playLists;
+    }
+}
@@ -0,0 +1,129 @@
+package com.player.mediaplayer;
+
+import com.player.mediaplayer.models.PlayQueue;
+import com.player.mediaplayer.models.Track;
+import javafx.collections.ListChangeListener;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class PlayQueueTest {
+    @Test
+    public void testMatchesListUnderRandomEdits() {
+
+        //
+        // Given
+        //
+        PlayQueue queue = new PlayQueue();
+        List<Track> expected = new ArrayList<>();
+        Random random = new Random(7);
+
+        //
+        // When
+        //
+        for (int step = 0; step < 5_000; ++step) {
+            Track track = track(step);
+            int operation = random.nextInt(6);
+            if (operation == 0 || expected.isEmpty()) {
+                queue.offer(track);
+                expected.add(track);
+            } else if (operation == 1) {
+                queue.poll();
+                expected.remove(0);
+            } else if (operation == 2) {
+                int index = random.nextInt(expected.size() + 1);
+                queue.add(index, track);
+                expected.add(index, track);
+            } else if (operation == 3) {
+                int index = random.nextInt(expected.size());
+                queue.remove(index);
+                expected.remove(index);
+            } else if (operation == 4) {
+                int from = random.nextInt(expected.size());
+                int to = random.nextInt(expected.size());
+                queue.move(from, to);
+                expected.add(to, expected.remove(from));
+            } else {
+                List<Track> tracks = List.of(track, track(-step));
+                int index = random.nextInt(expected.size() + 1);
+                queue.addAll(index, tracks);
+                expected.addAll(index, tracks);
+            }
+        }
+
+        //
+        // Then
+        //
+        assert(queue.equals(expected) && queue.peek() == expected.get(0));
+    }
+
+    @Test
+    public void testBulkEnqueueIsSingleChange() {
+
+        //
+        // Given
+        //
+        PlayQueue queue = new PlayQueue();
+        queue.offer(track(0));
+        List<Track> playList = new ArrayList<>();
+        for (int i = 1; i <= 1_000; ++i) {
+            playList.add(track(i));
+        }
+        List<String> changes = new ArrayList<>();
+        queue.addListener((ListChangeListener<Track>) change -> {
+            while (change.next()) {
+                changes.add(change.getFrom() + "+" + change.getAddedSize());
+            }
+        });
+
+        //
+        // When
+        //
+        queue.addAll(playList);
+
+        //
+        // Then
+        //
+        assert(queue.size() == 1_001 && changes.equals(List.of("1+1000")));
+    }
+
+    @Test
+    public void testMoveIsPermutation() {
+
+        //
+        // Given
+        //
+        PlayQueue queue = new PlayQueue();
+        List<Track> tracks = List.of(track(0), track(1), track(2), track(3));
+        queue.addAll(tracks);
+        List<Integer> permutation = new ArrayList<>();
+        queue.addListener((ListChangeListener<Track>) change -> {
+            while (change.next()) {
+                if (change.wasPermutated()) {
+                    for (int i = change.getFrom(); i < change.getTo(); ++i) {
+                        permutation.add(change.getPermutation(i));
+                    }
+                }
+            }
+        });
+
+        //
+        // When
+        //
+        queue.move(0, 2);
+
+        //
+        // Then
+        //
+        assert(
+                queue.equals(List.of(tracks.get(1), tracks.get(2), tracks.get(0), tracks.get(3))) &&
+                        permutation.equals(List.of(2, 0, 1))
+        );
+    }
+
+    private static Track track(int number) {
+        return new Track("Track " + number, "Artist", "", 200_000, "track" + number + ".mp3", null);
+    }
+}
@@ -0,0 +1,68 @@
+package com.player.mediaplayer;
+
+import com.player.mediaplayer.models.PlaybackSessions;
+import com.player.mediaplayer.models.Player;
+import com.player.mediaplayer.models.Track;
+import javafx.application.Platform;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+public class PlaybackSoakBenchmark {
+    private final static int SKIPS = 10_000;
+    private final static int SAMPLE_EVERY = 1_000;
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Path.of(args.length > 0 ? args[0] : "src/test/com/player/mediaplayer/resources");
+        List<Track> tracks = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.toString().endsWith(".mp3"))
+                    .forEach(path -> tracks.add(new Track(path.getFileName().toString(), "", "", 0, path.toUri().toString(), null)));
+        }
+        if (tracks.isEmpty()) {
+            System.out.println("No mp3 files in " + directory);
+            return;
+        }
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        started.await();
+        Player player = new Player();
+        ContentPaneBenchmark.onFxThread(() -> {
+            player.setOnEndOfMedia(() -> { });
+            player.setCurrentPlayList(tracks);
+            player.setCurrentTrackID(0);
+            player.play();
+            return null;
+        });
+        for (int skip = 1; skip <= SKIPS; ++skip) {
+            ContentPaneBenchmark.onFxThread(() -> {
+                player.next();
+                return null;
+            });
+            if (skip % SAMPLE_EVERY == 0) {
+                PlaybackSessions sessions = player.getPlaybackSessions();
+                System.out.printf("%,6d skips: %s, RSS %,d kB%n", skip, sessions, residentKilobytes());
+            }
+        }
+        ContentPaneBenchmark.onFxThread(() -> {
+            player.releaseMedia();
+            return null;
+        });
+        System.out.println(player.getPlaybackSessions());
+        Platform.exit();
+    }
+
+    private static long residentKilobytes() throws IOException {
+        for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        return -1;
+    }
+}
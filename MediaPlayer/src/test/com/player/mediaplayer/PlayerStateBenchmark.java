@@ -0,0 +1,73 @@
+package com.player.mediaplayer;
+
+import com.player.mediaplayer.models.PlayList;
+import com.player.mediaplayer.models.Player;
+import com.player.mediaplayer.models.PlayerState;
+import com.player.mediaplayer.models.Track;
+import com.player.mediaplayer.utils.IntMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PlayerStateBenchmark {
+    private final static int TRACKS = 100_000;
+    private final static int PLAYLISTS = 5;
+    private final static int PLAYLIST_SIZE = 5_000;
+    private final static int ROUNDS = 3;
+
+    public static void main(String[] args) {
+        Player player = new Player();
+        player.getAllTracks().setAll(ContentPaneBenchmark.tracks("T", TRACKS));
+        for (int playlist = 0; playlist < PLAYLISTS; ++playlist) {
+            ArrayList<Track> tracks = new ArrayList<>(PLAYLIST_SIZE);
+            for (int i = 0; i < PLAYLIST_SIZE; ++i) {
+                tracks.add(player.getAllTracks().get((playlist * 7919 + i * 31) % TRACKS));
+            }
+            player.getPlayLists().add(new PlayList("Playlist " + playlist, tracks));
+        }
+        for (int round = 0; round < ROUNDS; ++round) {
+            long start = System.nanoTime();
+            List<ArrayList<Integer>> indexes = indexOfMapping(player);
+            long indexOfSave = System.nanoTime() - start;
+            start = System.nanoTime();
+            PlayerState state = new PlayerState(player);
+            long idSave = System.nanoTime() - start;
+            start = System.nanoTime();
+            int resolved = resolve(state);
+            long idLoad = System.nanoTime() - start;
+            if (resolved != PLAYLISTS * PLAYLIST_SIZE || indexes.size() != PLAYLISTS) {
+                throw new IllegalStateException("Lost playlist entries");
+            }
+            System.out.printf("%,d tracks, %d x %,d playlist entries: indexOf mapping %8.1f ms, track id save %6.1f ms, id resolve %6.1f ms%n",
+                    TRACKS, PLAYLISTS, PLAYLIST_SIZE, indexOfSave / 1e6, idSave / 1e6, idLoad / 1e6);
+        }
+    }
+
+    private static List<ArrayList<Integer>> indexOfMapping(Player player) {
+        List<ArrayList<Integer>> mapping = new ArrayList<>();
+        for (PlayList playList : player.getPlayLists()) {
+            ArrayList<Integer> indexes = new ArrayList<>();
+            for (Track track : playList.getPlayList()) {
+                indexes.add(player.getAllTracks().indexOf(track));
+            }
+            mapping.add(indexes);
+        }
+        return mapping;
+    }
+
+    private static int resolve(PlayerState state) {
+        IntMap<PlayerState.SerializableTrack> tracksById = new IntMap<>(state.allTracks.size());
+        for (PlayerState.SerializableTrack track : state.allTracks) {
+            tracksById.put(track.getId(), track);
+        }
+        int resolved = 0;
+        for (PlayerState.SerializablePlayList playList : state.playLists) {
+            for (int trackId : playList.getTrackIds()) {
+                if (tracksById.get(trackId) != null) {
+                    ++resolved;
+                }
+            }
+        }
+        return resolved;
+    }
+}
@@ -2,11 +2,13 @@ package com.player.mediaplayer;
 
 import com.mpatric.mp3agic.InvalidDataException;
 import com.mpatric.mp3agic.UnsupportedTagException;
+import com.player.mediaplayer.models.PlayList;
 import com.player.mediaplayer.models.Player;
 import com.player.mediaplayer.models.PlayerState;
 import com.player.mediaplayer.models.Track;
 import com.player.mediaplayer.utils.MP3Parser;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import org.junit.Before;
 import org.junit.Test;
@@ -34,7 +36,7 @@ public class PlayerTest {
         // Given
         //
         ArrayList<Track> tracks = new ArrayList<>();
-        tracks.add(new Track("Yesterday", "Beatles", "", "200", "yesterday.mp3", null));
+        tracks.add(new Track("Yesterday", "Beatles", "", 200_000, "yesterday.mp3", null));
         player.setCurrentPlayList(tracks);
 
         //
@@ -49,12 +51,241 @@ public class PlayerTest {
                 currentTracks.size() == 1 &&
                         Objects.equals(currentTracks.get(0).getSongName(), "Yesterday") &&
                         Objects.equals(currentTracks.get(0).getSongArtist(), "Beatles") &&
-                        Objects.equals(currentTracks.get(0).getSongDuration(), "200") &&
+                        currentTracks.get(0).getSongDurationMillis() == 200_000 &&
                         Objects.equals(currentTracks.get(0).getFilePath(), "yesterday.mp3") &&
                         currentTracks.get(0).getSongArtwork() == null
         );
     }
 
+    @Test
+    public void testUpcomingTrack() {
+
+        //
+        // Given
+        //
+        ArrayList<Track> tracks = new ArrayList<>();
+        tracks.add(new Track("Yesterday", "Beatles", "", 200_000, "yesterday.mp3", null));
+        tracks.add(new Track("Help!", "Beatles", "", 139_000, "help.mp3", null));
+        Track queued = new Track("Something", "Beatles", "", 182_000, "something.mp3", null);
+        player.setCurrentPlayList(tracks);
+        player.setCurrentTrackID(1);
+
+        //
+        // When
+        //
+        Track sequential = player.getUpcomingTrack();
+        player.addToQueue(queued);
+        Track fromQueue = player.getUpcomingTrack();
+        player.setIsRepeating(true);
+        Track repeated = player.getUpcomingTrack();
+
+        //
+        // Then
+        //
+        assert(
+                sequential == tracks.get(0) &&
+                        fromQueue == queued &&
+                        repeated == tracks.get(1)
+        );
+    }
+
+    @Test
+    public void testSkipBurstDoesNotOpenMedia() {
+
+        //
+        // Given
+        //
+        ArrayList<Track> tracks = new ArrayList<>();
+        for (int i = 0; i < 20; ++i) {
+            tracks.add(new Track("Track " + i, "Artist", "", 200_000, "track" + i + ".mp3", null));
+        }
+        player.setCurrentPlayList(tracks);
+        player.setCurrentTrackID(0);
+
+        //
+        // When
+        //
+        for (int i = 0; i < 10; ++i) {
+            player.skipNext();
+        }
+
+        //
+        // Then
+        //
+        assert(
+                player.getCurrentTrackID() == 10 &&
+                        player.getCurrentTrack().get() == tracks.get(10) &&
+                        player.getPlaybackSessions().getAllocated().get() == 0
+        );
+    }
+
+    @Test
+    public void testRemovingTracksKeepsCurrentPosition() {
+
+        //
+        // Given
+        //
+        ArrayList<Track> tracks = new ArrayList<>();
+        for (int i = 0; i < 6; ++i) {
+            tracks.add(new Track("Track " + i, "Artist", "", 200_000, "track" + i + ".mp3", null));
+        }
+        player.addTracks(tracks);
+        player.setCurrentPlayList(player.getAllTracks());
+        player.setCurrentTrackID(2);
+
+        //
+        // When
+        //
+        player.removeTrack(tracks.get(0));
+        int afterEarlierRemoved = player.getCurrentTrackID();
+        Track upcomingAfterEarlierRemoved = player.getUpcomingTrack();
+        player.removeTrack(tracks.get(2));
+
+        //
+        // Then
+        //
+        assert(
+                afterEarlierRemoved == 1 &&
+                        upcomingAfterEarlierRemoved == tracks.get(3) &&
+                        player.getCurrentTrackID() == 0 &&
+                        player.getUpcomingTrack() == tracks.get(3)
+        );
+    }
+
+    @Test
+    public void testAddTracksIsSingleChange() {
+
+        //
+        // Given
+        //
+        PlayerContext.selectedPlaylist.setSource(player.getAllTracks());
+        ArrayList<Track> tracks = new ArrayList<>();
+        for (int i = 0; i < 10_000; ++i) {
+            tracks.add(new Track("Track " + i, "Artist", "", 200_000, "track" + i + ".mp3", null));
+        }
+        int[] changes = {0, 0};
+        player.getAllTracks().addListener((ListChangeListener<Track>) change -> ++changes[0]);
+        PlayerContext.selectedPlaylist.addListener((ListChangeListener<Track>) change -> ++changes[1]);
+
+        //
+        // When
+        //
+        player.addTracks(tracks);
+
+        //
+        // Then
+        //
+        assert(
+                player.getAllTracks().size() == 10_000 &&
+                        PlayerContext.selectedPlaylist.size() == 10_000 &&
+                        changes[0] == 1 &&
+                        changes[1] == 1 &&
+                        tracks.stream().allMatch(track -> track.getTrackId() > 0)
+        );
+    }
+
+    @Test
+    public void testRemoveTracksIsSingleChange() {
+
+        //
+        // Given
+        //
+        PlayerContext.selectedPlaylist.setSource(player.getAllTracks());
+        ArrayList<Track> tracks = new ArrayList<>();
+        for (int i = 0; i < 10_000; ++i) {
+            tracks.add(new Track("Track " + i, "Artist", "", 200_000, "track" + i + ".mp3", null));
+        }
+        player.addTracks(tracks);
+        PlayList playList = new PlayList("Mix", new ArrayList<>(tracks));
+        player.addPlayList(playList);
+        ArrayList<Track> removed = new ArrayList<>();
+        for (int i = 0; i < tracks.size(); i += 2) {
+            removed.add(tracks.get(i));
+        }
+        int[] changes = {0, 0, 0};
+        player.getAllTracks().addListener((ListChangeListener<Track>) change -> ++changes[0]);
+        PlayerContext.selectedPlaylist.addListener((ListChangeListener<Track>) change -> ++changes[1]);
+        playList.getPlayList().addListener((ListChangeListener<Track>) change -> ++changes[2]);
+
+        //
+        // When
+        //
+        player.removeTracks(removed);
+
+        //
+        // Then
+        //
+        assert(
+                player.getAllTracks().size() == 5_000 &&
+                        PlayerContext.selectedPlaylist.size() == 5_000 &&
+                        playList.getPlayList().size() == 5_000 &&
+                        changes[0] == 1 &&
+                        changes[1] == 1 &&
+                        changes[2] == 1
+        );
+    }
+
+    @Test
+    public void testAddTracksSkipsPathsAlreadyInLibrary() {
+
+        //
+        // Given
+        //
+        Track yesterday = new Track("Yesterday", "Beatles", "", 200_000, "yesterday.mp3", null);
+        player.addTrack(yesterday);
+        ArrayList<Track> tracks = new ArrayList<>();
+        tracks.add(new Track("Yesterday", "Beatles", "", 200_000, "yesterday.mp3", null));
+        tracks.add(new Track("Help!", "Beatles", "", 200_000, "help.mp3", null));
+        tracks.add(new Track("Help!", "Beatles", "", 200_000, "help.mp3", null));
+
+        //
+        // When
+        //
+        player.addTracks(tracks);
+        player.removeTrack(yesterday);
+        player.addTrack(tracks.get(0));
+
+        //
+        // Then
+        //
+        assert(
+                player.getAllTracks().size() == 2 &&
+                        player.getAllTracks().get(0) == tracks.get(1) &&
+                        player.getAllTracks().get(1) == tracks.get(0)
+        );
+    }
+
+    @Test
+    public void testImportedPlayListTracksJoinLibrary() {
+
+        //
+        // Given
+        //
+        Track yesterday = new Track("Yesterday", "Beatles", "", 200_000, "yesterday.mp3", null);
+        player.addTrack(yesterday);
+        ArrayList<Track> imported = new ArrayList<>();
+        imported.add(new Track("Yesterday", "Beatles", "", 200_000, "yesterday.mp3", null));
+        imported.add(new Track("Help!", "Beatles", "", 200_000, "help.mp3", null));
+
+        //
+        // When
+        //
+        player.addPlayList(new PlayList("Imported", imported));
+        PlayerState state = new PlayerState(player);
+
+        //
+        // Then
+        //
+        PlayList playList = player.getPlayLists().get(0);
+        assert(
+                player.getAllTracks().size() == 2 &&
+                        playList.getPlayList().get(0) == yesterday &&
+                        playList.getPlayList().get(1) == player.getAllTracks().get(1) &&
+                        state.playLists.get(0).getTrackIds().length == 2 &&
+                        state.playLists.get(0).getTrackIds()[1] == state.allTracks.get(1).getId()
+        );
+    }
+
     @Test
     public void testPlayerState() throws InvalidDataException, UnsupportedTagException, IOException {
 
@@ -64,7 +295,7 @@ public class PlayerTest {
         ArrayList<Track> tracks = new ArrayList<>();
         Track track = MP3Parser.parse(new File("src/test/com/player/mediaplayer/resources/test.mp3"));
         tracks.add(track);
-        PlayerContext.selectedPlaylist = FXCollections.observableArrayList(player.getCurrentPlayList());
+        PlayerContext.selectedPlaylist.setSource(player.getCurrentPlayList());
         player.addTrack(track);
         player.setCurrentPlayList(tracks);
         player.setCurrentTrackID(0);
@@ -0,0 +1,83 @@
+package com.player.mediaplayer;
+
+import com.player.mediaplayer.models.PlaylistView;
+import com.player.mediaplayer.models.Track;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PlaylistViewTest {
+    @Test
+    public void testSwitchingSourceIsSingleChange() {
+
+        //
+        // Given
+        //
+        ObservableList<Track> first = FXCollections.observableList(tracks("A", 10_000));
+        ObservableList<Track> second = FXCollections.observableList(tracks("B", 5));
+        PlaylistView view = new PlaylistView(first);
+        List<Integer> removedSizes = new ArrayList<>();
+        List<Integer> addedSizes = new ArrayList<>();
+        view.addListener((ListChangeListener<Track>) change -> {
+            while (change.next()) {
+                removedSizes.add(change.getRemovedSize());
+                addedSizes.add(change.getAddedSize());
+            }
+        });
+
+        //
+        // When
+        //
+        view.setSource(second);
+
+        //
+        // Then
+        //
+        assert(
+                view.getSource() == second &&
+                        view.size() == 5 &&
+                        view.get(0) == second.get(0) &&
+                        removedSizes.equals(List.of(10_000)) &&
+                        addedSizes.equals(List.of(5))
+        );
+    }
+
+    @Test
+    public void testForwardsSourceChanges() {
+
+        //
+        // Given
+        //
+        ObservableList<Track> source = FXCollections.observableArrayList(tracks("A", 4));
+        ObservableList<Track> other = FXCollections.observableArrayList(tracks("B", 2));
+        PlaylistView view = new PlaylistView(other);
+        view.setSource(source);
+        int[] changes = {0};
+        view.addListener((ListChangeListener<Track>) change -> ++changes[0]);
+
+        //
+        // When
+        //
+        source.remove(1);
+        source.add(0, other.get(0));
+        other.clear();
+        FXCollections.reverse(source);
+
+        //
+        // Then
+        //
+        assert(view.equals(source) && changes[0] == 3);
+    }
+
+    private static List<Track> tracks(String prefix, int size) {
+        List<Track> tracks = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            tracks.add(new Track(prefix + " track " + i, "Artist", "", 185_000, prefix + i + ".mp3", null));
+        }
+        return tracks;
+    }
+}
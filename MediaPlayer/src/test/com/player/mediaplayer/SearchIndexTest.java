@@ -0,0 +1,93 @@
+package com.player.mediaplayer;
+
+import com.player.mediaplayer.models.Track;
+import com.player.mediaplayer.utils.SearchIndex;
+import com.player.mediaplayer.utils.SearchService;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.Test;
+
+import java.util.List;
+
+public class SearchIndexTest {
+    @Test
+    public void testPrefixSearchKeepsLibraryOrder() {
+
+        //
+        // Given
+        //
+        Track yesterday = new Track("Yesterday", "The Beatles", "Help!", 125_000, "yesterday.mp3", null);
+        Track beat = new Track("Beat It", "Michael Jackson", "Thriller", 258_000, "beat.mp3", null);
+        Track cafe = new Track("Café del Mar", "Energy 52", "Café del Mar", 448_000, "cafe.mp3", null);
+        ObservableList<Track> tracks = FXCollections.observableArrayList(yesterday, beat, cafe);
+        SearchIndex searchIndex = new SearchIndex(tracks);
+
+        //
+        // When
+        //
+        List<Track> beatResults = searchIndex.search("BEAT");
+        List<Track> accentResults = searchIndex.search("cafe mar");
+        List<Track> missingResults = searchIndex.search("beatles thriller");
+
+        //
+        // Then
+        //
+        assert(
+                beatResults.equals(List.of(yesterday, beat)) &&
+                        accentResults.equals(List.of(cafe)) &&
+                        missingResults.isEmpty()
+        );
+    }
+
+    @Test
+    public void testIndexFollowsLibraryChanges() {
+
+        //
+        // Given
+        //
+        Track yesterday = new Track("Yesterday", "The Beatles", "Help!", 125_000, "yesterday.mp3", null);
+        Track help = new Track("Help!", "The Beatles", "Help!", 138_000, "help.mp3", null);
+        ObservableList<Track> tracks = FXCollections.observableArrayList(yesterday);
+        SearchIndex searchIndex = new SearchIndex(tracks);
+
+        //
+        // When
+        //
+        tracks.add(help);
+        tracks.remove(yesterday);
+
+        //
+        // Then
+        //
+        assert(
+                searchIndex.search("beatles").equals(List.of(help)) &&
+                        searchIndex.search("yesterday").isEmpty() &&
+                        searchIndex.size() == 1
+        );
+    }
+
+    @Test
+    public void testQueryWithoutTokensDoesNotNarrowLaterSearches() {
+
+        //
+        // Given
+        //
+        Track yesterday = new Track("Yesterday", "The Beatles", "Help!", 125_000, "yesterday.mp3", null);
+        Track anna = new Track("Anna", "The Beatles", "Please Please Me", 177_000, "anna.mp3", null);
+        SearchService searchService = new SearchService(new SearchIndex(FXCollections.observableArrayList(yesterday, anna)));
+
+        //
+        // When
+        //
+        List<Track> punctuationResults = searchService.search("!!");
+        List<Track> results = searchService.search("!!a");
+
+        //
+        // Then
+        //
+        assert(
+                punctuationResults.isEmpty() &&
+                        results.equals(List.of(anna))
+        );
+    }
+}
@@ -0,0 +1,57 @@
+package com.player.mediaplayer;
+
+import com.player.mediaplayer.utils.ShuffleOrder;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class ShuffleOrderBenchmark {
+    private final static int SIZE = 1_000_000;
+    private final static int APPENDS = 10_000;
+    private final static int REMOVALS = 100;
+
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        Set<Integer> played = new HashSet<>();
+        int current = 0;
+        int repeats = 0;
+        for (int i = 0; i < SIZE; ++i) {
+            int next;
+            do {
+                next = ThreadLocalRandom.current().nextInt(0, SIZE);
+            } while (next == current);
+            current = next;
+            if (!played.add(current)) {
+                ++repeats;
+            }
+        }
+        System.out.printf("Rejection sampling: %,d picks in %.1f ms, %,d repeats%n", SIZE, (System.nanoTime() - start) / 1e6, repeats);
+
+        ShuffleOrder shuffleOrder = new ShuffleOrder();
+        start = System.nanoTime();
+        shuffleOrder.reset(SIZE, 0);
+        System.out.printf("Permutation of %,d: %.1f ms%n", SIZE, (System.nanoTime() - start) / 1e6);
+
+        start = System.nanoTime();
+        for (int i = 1; i < SIZE; ++i) {
+            shuffleOrder.next();
+        }
+        for (int i = 1; i < SIZE; ++i) {
+            shuffleOrder.previous();
+        }
+        System.out.printf("%,d next + previous: %.1f ms%n", SIZE, (System.nanoTime() - start) / 1e6);
+
+        start = System.nanoTime();
+        for (int i = 0; i < APPENDS; ++i) {
+            shuffleOrder.inserted(shuffleOrder.size(), 1);
+        }
+        System.out.printf("%,d appends: %.1f ms%n", APPENDS, (System.nanoTime() - start) / 1e6);
+
+        start = System.nanoTime();
+        for (int i = 0; i < REMOVALS; ++i) {
+            shuffleOrder.removed(ThreadLocalRandom.current().nextInt(0, shuffleOrder.size()), 1);
+        }
+        System.out.printf("%,d removals: %.2f ms each%n", REMOVALS, (System.nanoTime() - start) / 1e6 / REMOVALS);
+    }
+}
@@ -0,0 +1,106 @@
+package com.player.mediaplayer;
+
+import com.player.mediaplayer.utils.ShuffleOrder;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class ShuffleOrderTest {
+    @Test
+    public void testCycleVisitsEveryTrackOnce() {
+
+        //
+        // Given
+        //
+        ShuffleOrder shuffleOrder = new ShuffleOrder(new Random(1));
+        shuffleOrder.reset(100, 42);
+
+        //
+        // When
+        //
+        Set<Integer> visited = new HashSet<>();
+        visited.add(shuffleOrder.current());
+        for (int i = 0; i < 99; ++i) {
+            visited.add(shuffleOrder.next());
+        }
+
+        //
+        // Then
+        //
+        assert(visited.size() == 100 && shuffleOrder.peekNext() != shuffleOrder.current());
+    }
+
+    @Test
+    public void testPreviousWalksHistoryBack() {
+
+        //
+        // Given
+        //
+        ShuffleOrder shuffleOrder = new ShuffleOrder(new Random(2));
+        shuffleOrder.reset(50, 0);
+        List<Integer> played = new ArrayList<>();
+        played.add(shuffleOrder.current());
+        for (int i = 0; i < 10; ++i) {
+            played.add(shuffleOrder.next());
+        }
+
+        //
+        // When
+        //
+        List<Integer> rewound = new ArrayList<>();
+        int previous;
+        while ((previous = shuffleOrder.previous()) >= 0) {
+            rewound.add(0, previous);
+        }
+        rewound.add(played.get(played.size() - 1));
+
+        //
+        // Then
+        //
+        assert(rewound.equals(played));
+    }
+
+    @Test
+    public void testEditsKeepHistoryAndPermutation() {
+
+        //
+        // Given
+        //
+        ShuffleOrder shuffleOrder = new ShuffleOrder(new Random(3));
+        shuffleOrder.reset(20, 5);
+        int first = shuffleOrder.current() + 3;
+        int second = shuffleOrder.next() + 3;
+        int removeFrom = 3;
+        while (removeFrom == first || removeFrom + 1 == first || removeFrom == second || removeFrom + 1 == second) {
+            ++removeFrom;
+        }
+
+        //
+        // When
+        //
+        shuffleOrder.inserted(0, 3);
+        shuffleOrder.removed(removeFrom, 2);
+        int current = shuffleOrder.current();
+        int previous = shuffleOrder.previous();
+        Set<Integer> permutation = new HashSet<>();
+        permutation.add(shuffleOrder.current());
+        for (int i = 1; i < shuffleOrder.size(); ++i) {
+            permutation.add(shuffleOrder.next());
+        }
+
+        //
+        // Then
+        //
+        assert(
+                shuffleOrder.size() == 21 &&
+                        current == (second > removeFrom ? second - 2 : second) &&
+                        previous == (first > removeFrom ? first - 2 : first) &&
+                        permutation.size() == 21 &&
+                        permutation.stream().allMatch(index -> index >= 0 && index < 21)
+        );
+    }
+}
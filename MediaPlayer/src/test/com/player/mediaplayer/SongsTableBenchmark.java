@@ -0,0 +1,220 @@
+package com.player.mediaplayer;
+
+import com.player.mediaplayer.controllers.ContentPaneController;
+import com.player.mediaplayer.controllers.RowNumberCell;
+import com.player.mediaplayer.models.PlayList;
+import com.player.mediaplayer.models.Player;
+import com.player.mediaplayer.models.Track;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.Label;
+import javafx.scene.control.Menu;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.ToggleButton;
+import javafx.stage.Stage;
+import javafx.util.Callback;
+import org.controlsfx.control.textfield.CustomTextField;
+import org.kordamp.ikonli.javafx.FontIcon;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+public class SongsTableBenchmark {
+    private final static int ROWS = 100_000;
+    private final static int PLAYLISTS = 200;
+    private final static int SCROLL_STEPS = 500;
+    private final static int SCROLL_STEP_ROWS = 37;
+    private final static String PREVIOUS_ICON_STYLE = """
+            #favoriteButton .ikonli-font-icon {
+                -fx-icon-code: "mdi2h-heart-outline";
+                -fx-icon-color: -fx-pink-color;
+                -fx-icon-size: 15;
+            }
+            #favoriteButton:hover .ikonli-font-icon {
+                -fx-icon-color: white;
+            }
+            #favoriteButton:selected .ikonli-font-icon {
+                -fx-icon-code: "mdi2h-heart";
+                -fx-icon-color: -fx-pink-color;
+                -fx-icon-size: 15;
+            }
+            #settingsButton .ikonli-font-icon {
+                -fx-icon-code: "fltfmz-more-16";
+                -fx-icon-color: -fx-pink-color;
+                -fx-icon-size: 16;
+            }
+            #settingsButton:hover .ikonli-font-icon {
+                -fx-icon-color: white;
+            }
+            """;
+
+    public static void main(String[] args) throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        started.await();
+        List<Track> rows = ContentPaneBenchmark.tracks("S", ROWS);
+        for (int i = 0; i < PLAYLISTS; ++i) {
+            PlayerContext.player.getPlayLists().add(new PlayList("Playlist " + i, null));
+        }
+        double before = ContentPaneBenchmark.onFxThread(() -> measureScroll(previousCellsTable(rows)));
+        double after = ContentPaneBenchmark.onFxThread(() -> measureScroll(controllerTable(rows)));
+        System.out.printf("Scrolling %,d rows: previous cells %.3f ms/frame, shared icons %.3f ms/frame%n", ROWS, before, after);
+        Platform.exit();
+    }
+
+    private static TableView<Track> previousCellsTable(List<Track> rows) {
+        Player player = PlayerContext.player;
+        PlayerContext.selectedPlaylist.setSource(FXCollections.observableArrayList(rows));
+        TableView<Track> table = ContentPaneBenchmark.table();
+        TableColumn<Track, Track> songLiked = new TableColumn<>();
+        TableColumn<Track, Track> songSettings = new TableColumn<>();
+        Callback<TableColumn<Track, Track>, TableCell<Track, Track>> cellFactoryLiked = new Callback<>() {
+            @Override
+            public TableCell<Track, Track> call(TableColumn<Track, Track> param) {
+                final TableCell<Track, Track> cell = new TableCell<>() {
+                    private final ToggleButton favoriteButton = new ToggleButton();
+
+                    {
+                        favoriteButton.setId("favoriteButton");
+                        favoriteButton.setGraphic(new FontIcon());
+                        favoriteButton.setOnMouseClicked(mouseEvent -> {
+                            PlayerContext.selectedPlaylist.get(getIndex()).setSongLiked(favoriteButton.isSelected());
+                        });
+                    }
+
+                    @Override
+                    public void updateItem(Track item, boolean empty) {
+                        super.updateItem(item, empty);
+                        if (empty) {
+                            setGraphic(null);
+                        } else {
+                            favoriteButton.setSelected(PlayerContext.selectedPlaylist.get(getIndex()).getSongLiked());
+                            setGraphic(favoriteButton);
+                        }
+                    }
+                };
+                cell.getStyleClass().add("cell-style");
+                cell.getStyleClass().add("favorite-table-button-alignment");
+                return cell;
+            }
+        };
+
+        Callback<TableColumn<Track, Track>, TableCell<Track, Track>> cellFactorySettings = new Callback<>() {
+            @Override
+            public TableCell<Track, Track> call(final TableColumn<Track, Track> param) {
+                ContextMenu songSettingsContextMenu = new ContextMenu();
+                Menu playlistMenu = new Menu("Add to playlist");
+                MenuItem queueMenuItem = new MenuItem("Add to queue");
+                MenuItem removeMenuItem = new MenuItem("Remove from the current playlist");
+
+                songSettingsContextMenu.getItems().add(playlistMenu);
+                songSettingsContextMenu.getItems().add(queueMenuItem);
+                songSettingsContextMenu.getItems().add(removeMenuItem);
+                songSettingsContextMenu.setId("settingsContextMenu");
+                final TableCell<Track, Track> cell = new TableCell<>() {
+                    private final Button settingsButton = new Button();
+                    {
+                        settingsButton.setId("settingsButton");
+                        settingsButton.setGraphic(new FontIcon());
+                        settingsButton.setOnMouseClicked(mouseEvent -> {
+                            songSettingsContextMenu.show(settingsButton.getScene().getWindow(), mouseEvent.getScreenX(), mouseEvent.getScreenY());
+                            removeMenuItem.setOnAction(actionEvent -> {
+                                Track trackToRemove = PlayerContext.selectedPlaylist.get(getIndex());
+                                player.getCurrentPlayList().remove(trackToRemove);
+                                PlayerContext.selectedPlaylist.remove(trackToRemove);
+                                if (PlayerContext.selectedPlaylistRef != null) {
+                                    PlayerContext.selectedPlaylistRef.remove(trackToRemove);
+                                }
+                            });
+                            queueMenuItem.setOnAction(actionEvent -> {
+                                player.addToQueue(PlayerContext.selectedPlaylist.get(getIndex()));
+                            });
+                        });
+                    }
+
+                    @Override
+                    public void updateItem(Track item, boolean empty) {
+                        super.updateItem(item, empty);
+                        if (empty) {
+                            setGraphic(null);
+                        } else {
+                            setGraphic(settingsButton);
+                        }
+                    }
+                };
+                songSettingsContextMenu.setOnShown(event -> {
+                    playlistMenu.getItems().clear();
+                    for (PlayList playlist : player.getPlayLists()) {
+                        MenuItem item = new MenuItem();
+                        item.textProperty().bind(playlist.getName());
+                        playlistMenu.getItems().add(item);
+                        item.setOnAction(actionEvent -> playlist.getPlayList().add(PlayerContext.selectedPlaylist.get(cell.getIndex())));
+                    }
+                });
+                cell.getStyleClass().add("cell-style");
+                cell.getStyleClass().add("settings-table-button-alignment");
+                return cell;
+            }
+        };
+
+        songLiked.setCellFactory(cellFactoryLiked);
+        songSettings.setCellFactory(cellFactorySettings);
+        table.getColumns().add(0, numberColumn());
+        table.getColumns().addAll(songLiked, songSettings);
+        table.setItems(PlayerContext.selectedPlaylist);
+        table.getScene().getStylesheets().add("data:text/css;base64,"
+                + Base64.getEncoder().encodeToString(PREVIOUS_ICON_STYLE.getBytes(StandardCharsets.UTF_8)));
+        return table;
+    }
+
+    private static TableView<Track> controllerTable(List<Track> rows) {
+        ContentPaneController controller = new ContentPaneController();
+        controller.songSearchField = new CustomTextField();
+        controller.songsListTable = new TableView<>();
+        controller.songNumber = new TableColumn<>();
+        controller.songName = new TableColumn<>();
+        controller.songArtist = new TableColumn<>();
+        controller.songAlbum = new TableColumn<>();
+        controller.songDuration = new TableColumn<>();
+        controller.songLiked = new TableColumn<>();
+        controller.songSettings = new TableColumn<>();
+        controller.tableLabel = new Label();
+        controller.songsListTable.getColumns().addAll(controller.songNumber, controller.songName, controller.songArtist,
+                controller.songAlbum, controller.songDuration, controller.songLiked, controller.songSettings);
+        controller.initialize(null, null);
+        PlayerContext.player.getAllTracks().setAll(rows);
+        Stage stage = new Stage();
+        stage.setScene(new Scene(controller.songsListTable, 1366, 768));
+        stage.show();
+        return controller.songsListTable;
+    }
+
+    private static TableColumn<Track, String> numberColumn() {
+        TableColumn<Track, String> number = new TableColumn<>("#");
+        number.setCellFactory(column -> new RowNumberCell<>());
+        return number;
+    }
+
+    private static double measureScroll(TableView<Track> table) {
+        table.setId("songsListTable");
+        table.getScene().getStylesheets().add(0, SongsTableBenchmark.class.getResource("style.css").toExternalForm());
+        table.applyCss();
+        table.layout();
+        long start = System.nanoTime();
+        for (int step = 0; step < SCROLL_STEPS; ++step) {
+            table.scrollTo(step * SCROLL_STEP_ROWS % table.getItems().size());
+            table.layout();
+        }
+        long elapsed = System.nanoTime() - start;
+        ((Stage) table.getScene().getWindow()).close();
+        return elapsed / 1e6 / SCROLL_STEPS;
+    }
+}
@@ -0,0 +1,119 @@
+package com.player.mediaplayer;
+
+import com.player.mediaplayer.models.SortedPlaylistView;
+import com.player.mediaplayer.models.Track;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class SortedPlaylistViewTest {
+    @Test
+    public void testKeepsSortedOrderUnderEdits() {
+
+        //
+        // Given
+        //
+        Random random = new Random(11);
+        ObservableList<Track> source = FXCollections.observableArrayList(tracks(random, 20_000));
+        SortedPlaylistView view = new SortedPlaylistView(source);
+        view.setComparator(Track.BY_DURATION.thenComparing(Track.BY_NAME));
+        List<Track> mirror = new ArrayList<>(view);
+        view.addListener((ListChangeListener<Track>) change -> {
+            while (change.next()) {
+                mirror.subList(change.getFrom(), change.getFrom() + change.getRemovedSize()).clear();
+                mirror.addAll(change.getFrom(), change.getAddedSubList());
+            }
+        });
+
+        //
+        // When
+        //
+        source.addAll(tracks(random, 3_000));
+        source.add(tracks(random, 1).get(0));
+        source.addAll(100, tracks(random, 50));
+        source.remove(0, 500);
+
+        //
+        // Then
+        //
+        List<Track> expected = new ArrayList<>(source);
+        expected.sort(Track.BY_DURATION.thenComparing(Track.BY_NAME));
+        boolean sourceIndexesMatch = true;
+        for (int i = 0; i < view.size(); ++i) {
+            sourceIndexesMatch &= source.get(view.getSourceIndex(i)) == view.get(i);
+        }
+        assert(view.equals(expected) && mirror.equals(expected) && sourceIndexesMatch);
+    }
+
+    @Test
+    public void testSourceIndexOfDuplicatedTrack() {
+
+        //
+        // Given
+        //
+        Track yesterday = new Track("Yesterday", "Beatles", "Help!", 125_000, "yesterday.mp3", null);
+        Track anna = new Track("Anna", "Beatles", "Please Please Me", 177_000, "anna.mp3", null);
+        ObservableList<Track> source = FXCollections.observableArrayList(yesterday, anna, yesterday);
+        SortedPlaylistView view = new SortedPlaylistView(source);
+
+        //
+        // When
+        //
+        view.setComparator(Track.BY_NAME);
+        source.add(0, anna);
+
+        //
+        // Then
+        //
+        assert(
+                view.equals(List.of(anna, anna, yesterday, yesterday)) &&
+                        view.getSourceIndex(0) == 2 &&
+                        view.getSourceIndex(1) == 0 &&
+                        view.getSourceIndex(2) == 1 &&
+                        view.getSourceIndex(3) == 3
+        );
+    }
+
+    @Test
+    public void testClearingComparatorRestoresSourceOrder() {
+
+        //
+        // Given
+        //
+        ObservableList<Track> source = FXCollections.observableArrayList(
+                new Track("Yesterday", "Beatles", "Help!", 125_000, "yesterday.mp3", null),
+                new Track("Help!", "Beatles", "Help!", 138_000, "help.mp3", null),
+                new Track("Anna", "Beatles", "Please Please Me", 177_000, "anna.mp3", null)
+        );
+        SortedPlaylistView view = new SortedPlaylistView(source);
+        view.setComparator(Track.BY_NAME);
+        List<String> sortedNames = view.stream().map(Track::getSongName).toList();
+
+        //
+        // When
+        //
+        view.setComparator(null);
+
+        //
+        // Then
+        //
+        assert(
+                sortedNames.equals(List.of("Anna", "Help!", "Yesterday")) &&
+                        view.equals(source) &&
+                        view.getSourceIndex(2) == 2
+        );
+    }
+
+    private static List<Track> tracks(Random random, int size) {
+        List<Track> tracks = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            tracks.add(new Track("Track " + random.nextInt(1_000), "Artist", "", random.nextInt(100) * 1_000, "track" + i + ".mp3", null));
+        }
+        return tracks;
+    }
+}
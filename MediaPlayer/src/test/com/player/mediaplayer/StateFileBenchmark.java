@@ -0,0 +1,80 @@
+package com.player.mediaplayer;
+
+import com.player.mediaplayer.models.PlayerState;
+import com.player.mediaplayer.models.Track;
+import com.player.mediaplayer.utils.StateFile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class StateFileBenchmark {
+    private final static int TRACKS = 100_000;
+    private final static int PLAYLISTS = 20;
+    private final static int PLAYLIST_SIZE = 2_000;
+    private final static int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        PlayerState state = state();
+        Path legacyFile = Files.createTempFile("data", ".bin");
+        Path stateFile = Files.createTempFile("library", ".state");
+        legacyFile.toFile().deleteOnExit();
+        stateFile.toFile().deleteOnExit();
+        for (int round = 0; round < ROUNDS; ++round) {
+            long start = System.nanoTime();
+            writeLegacy(legacyFile, state);
+            long legacySave = System.nanoTime() - start;
+            start = System.nanoTime();
+            PlayerState legacyState = readLegacy(legacyFile);
+            long legacyLoad = System.nanoTime() - start;
+            start = System.nanoTime();
+            StateFile.write(stateFile, state);
+            long save = System.nanoTime() - start;
+            start = System.nanoTime();
+            PlayerState loadedState = StateFile.read(stateFile);
+            long load = System.nanoTime() - start;
+            if (legacyState.allTracks.size() != TRACKS || loadedState.allTracks.size() != TRACKS) {
+                throw new IllegalStateException("Lost tracks");
+            }
+            System.out.printf("%,d tracks: serialization save %7.1f ms load %7.1f ms %,d bytes | state file save %7.1f ms load %7.1f ms %,d bytes%n",
+                    TRACKS, legacySave / 1e6, legacyLoad / 1e6, Files.size(legacyFile), save / 1e6, load / 1e6, Files.size(stateFile));
+        }
+    }
+
+    private static PlayerState state() {
+        PlayerState state = new PlayerState();
+        for (int i = 0; i < TRACKS; ++i) {
+            String directory = "file:/home/user/Music/Artist%20" + i % 500 + "/Album%20" + i % 2000 + "/";
+            Track track = new Track("Track " + i, "Artist " + i % 500, "Album " + i % 2000, 185_000, directory + i + ".mp3", Integer.toHexString(i % 2000));
+            track.setSongLiked(i % 7 == 0);
+            PlayerState.SerializableTrack serializableTrack = new PlayerState.SerializableTrack(track);
+            serializableTrack.setId(i + 1);
+            state.allTracks.add(serializableTrack);
+        }
+        for (int playlist = 0; playlist < PLAYLISTS; ++playlist) {
+            int[] trackIds = new int[PLAYLIST_SIZE];
+            for (int i = 0; i < PLAYLIST_SIZE; ++i) {
+                trackIds[i] = (playlist * 7919 + i * 31) % TRACKS + 1;
+            }
+            state.playLists.add(new PlayerState.SerializablePlayList("Playlist " + playlist, trackIds));
+        }
+        state.currentTrackID = 42;
+        return state;
+    }
+
+    private static void writeLegacy(Path file, PlayerState state) throws IOException {
+        try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeObject(state);
+        }
+    }
+
+    private static PlayerState readLegacy(Path file) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return (PlayerState) in.readObject();
+        }
+    }
+}
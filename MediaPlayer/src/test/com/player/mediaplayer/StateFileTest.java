@@ -0,0 +1,101 @@
+package com.player.mediaplayer;
+
+import com.player.mediaplayer.models.PlayerState;
+import com.player.mediaplayer.models.Track;
+import com.player.mediaplayer.utils.StateFile;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+public class StateFileTest {
+    @Test
+    public void testStateSurvivesRoundTrip() throws IOException {
+
+        //
+        // Given
+        //
+        PlayerState state = new PlayerState();
+        state.allTracks.add(new PlayerState.SerializableTrack(new Track("Yesterday", "Beatles", "Help!", 125_000, "file:/music/Beatles/yesterday.mp3", "ab12")));
+        state.allTracks.add(new PlayerState.SerializableTrack(new Track("Help!", "Beatles", "Help!", 138_000, "file:/music/Beatles/help.mp3", "ab12")));
+        state.allTracks.add(new PlayerState.SerializableTrack("file:/music/Caf%C3%A9/untagged.mp3", true));
+        for (int i = 0; i < state.allTracks.size(); ++i) {
+            state.allTracks.get(i).setId(10 + i);
+        }
+        state.playLists.add(new PlayerState.SerializablePlayList("Morning", new int[]{12, 10}));
+        state.playLists.add(new PlayerState.SerializablePlayList("Empty", new int[0]));
+        state.currentTrackID = 1;
+        state.currentVolume = 0.25;
+        state.isShuffling = true;
+        Path file = Files.createTempFile("library", ".state");
+        file.toFile().deleteOnExit();
+
+        //
+        // When
+        //
+        StateFile.write(file, state);
+        PlayerState loaded = StateFile.read(file);
+
+        //
+        // Then
+        //
+        PlayerState.SerializableTrack first = loaded.allTracks.get(0);
+        PlayerState.SerializableTrack untagged = loaded.allTracks.get(2);
+        assert(
+                loaded.allTracks.size() == 3 &&
+                        first.getId() == 10 &&
+                        Objects.equals(first.getPath(), "file:/music/Beatles/yesterday.mp3") &&
+                        Objects.equals(first.getSongName(), "Yesterday") &&
+                        Objects.equals(first.getSongArtist(), "Beatles") &&
+                        Objects.equals(first.getSongAlbum(), "Help!") &&
+                        first.getSongDurationMillis() == 125_000 &&
+                        Objects.equals(first.getSongArtworkId(), "ab12") &&
+                        !first.getSongLiked() &&
+                        Objects.equals(untagged.getPath(), "file:/music/Caf%C3%A9/untagged.mp3") &&
+                        !untagged.hasTags() &&
+                        untagged.getSongLiked() &&
+                        loaded.playLists.size() == 2 &&
+                        Objects.equals(loaded.playLists.get(0).getName(), "Morning") &&
+                        Arrays.equals(loaded.playLists.get(0).getTrackIds(), new int[]{12, 10}) &&
+                        loaded.playLists.get(1).getTrackIds().length == 0 &&
+                        loaded.currentTrackID == 1 &&
+                        loaded.currentVolume == 0.25 &&
+                        loaded.isShuffling &&
+                        !loaded.isRepeating
+        );
+    }
+
+    @Test
+    public void testTruncatedStateIsRejected() throws IOException {
+
+        //
+        // Given
+        //
+        PlayerState state = new PlayerState();
+        state.allTracks.add(new PlayerState.SerializableTrack("file:/music/song.mp3", false));
+        Path file = Files.createTempFile("library", ".state");
+        file.toFile().deleteOnExit();
+        StateFile.write(file, state);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 5));
+
+        //
+        // When
+        //
+        IOException error = null;
+        try {
+            StateFile.read(file);
+        } catch (IOException e) {
+            error = e;
+        }
+
+        //
+        // Then
+        //
+        assert(error != null);
+    }
+}
@@ -0,0 +1,194 @@
+package com.player.mediaplayer;
+
+import com.player.mediaplayer.models.PlayerState;
+import com.player.mediaplayer.models.Track;
+import com.player.mediaplayer.utils.StateJournal;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+public class StateJournalTest {
+    private static PlayerState.SerializableTrack track(String name) {
+        return new PlayerState.SerializableTrack(new Track(name, "Beatles", "Help!", 125_000, "file:/music/" + name + ".mp3", null));
+    }
+
+    @Test
+    public void testJournalReplaysMutations() throws IOException, InterruptedException {
+
+        //
+        // Given
+        //
+        Path journalFile = Files.createTempDirectory("journal").resolve("library.journal");
+        StateJournal journal = new StateJournal(journalFile, 0);
+        journal.trackAdded(track("yesterday"));
+        journal.trackAdded(track("help"));
+        journal.trackAdded(track("michelle"));
+        journal.trackLiked("file:/music/help.mp3", true);
+        journal.playListAdded("Morning", List.of("file:/music/michelle.mp3", "file:/music/missing.mp3"));
+        journal.playListTrackAdded(0, "file:/music/help.mp3");
+        journal.playListRenamed(0, "Evening");
+        journal.trackRemoved("file:/music/yesterday.mp3");
+        journal.settingsChanged(1, 0.1, false, false);
+        journal.settingsChanged(1, 0.7, true, false);
+        journal.close();
+
+        //
+        // When
+        //
+        PlayerState state = new PlayerState();
+        state.replayJournal(journalFile);
+
+        //
+        // Then
+        //
+        assert(
+                state.allTracks.size() == 3 &&
+                        Objects.equals(state.allTracks.get(0).getPath(), "file:/music/help.mp3") &&
+                        state.allTracks.get(0).getSongLiked() &&
+                        Objects.equals(state.allTracks.get(1).getSongName(), "michelle") &&
+                        Objects.equals(state.allTracks.get(2).getPath(), "file:/music/missing.mp3") &&
+                        !state.allTracks.get(2).hasTags() &&
+                        state.playLists.size() == 1 &&
+                        Objects.equals(state.playLists.get(0).getName(), "Evening") &&
+                        Arrays.equals(state.playLists.get(0).getTrackIds(), new int[]{state.allTracks.get(1).getId(), state.allTracks.get(2).getId(), state.allTracks.get(0).getId()}) &&
+                        state.currentTrackID == 1 &&
+                        state.currentVolume == 0.7 &&
+                        state.isShuffling
+        );
+    }
+
+    @Test
+    public void testBatchRecordsReplay() throws IOException, InterruptedException {
+
+        //
+        // Given
+        //
+        Path journalFile = Files.createTempDirectory("journal").resolve("library.journal");
+        StateJournal journal = new StateJournal(journalFile, 0);
+        journal.tracksAdded(List.of(track("yesterday"), track("help"), track("michelle"), track("girl")));
+        journal.playListAdded("Morning", List.of());
+        journal.playListTracksAdded(0, List.of("file:/music/yesterday.mp3", "file:/music/help.mp3", "file:/music/girl.mp3"));
+        journal.settingsChanged(3, 0.5, false, false);
+        journal.tracksRemoved(List.of("file:/music/help.mp3", "file:/music/michelle.mp3"));
+        journal.close();
+
+        //
+        // When
+        //
+        PlayerState state = new PlayerState();
+        state.replayJournal(journalFile);
+
+        //
+        // Then
+        //
+        assert(
+                state.allTracks.size() == 2 &&
+                        Objects.equals(state.allTracks.get(0).getSongName(), "yesterday") &&
+                        Objects.equals(state.allTracks.get(1).getSongName(), "girl") &&
+                        Arrays.equals(state.playLists.get(0).getTrackIds(), new int[]{state.allTracks.get(0).getId(), state.allTracks.get(1).getId()}) &&
+                        state.currentTrackID == 1
+        );
+    }
+
+    @Test
+    public void testSettingsAreNotMovedBeforeLaterRecords() throws IOException, InterruptedException {
+
+        //
+        // Given
+        //
+        Path journalFile = Files.createTempDirectory("journal").resolve("library.journal");
+        StateJournal journal = new StateJournal(journalFile, 0);
+        journal.tracksAdded(List.of(track("yesterday"), track("help"), track("michelle"), track("girl"), track("anna"), track("julia")));
+        synchronized (journal) {
+            journal.settingsChanged(5, 0.5, false, false);
+            journal.tracksRemoved(List.of("file:/music/help.mp3"));
+            journal.settingsChanged(4, 0.3, false, false);
+        }
+        journal.close();
+
+        //
+        // When
+        //
+        PlayerState state = new PlayerState();
+        state.replayJournal(journalFile);
+
+        //
+        // Then
+        //
+        assert(
+                state.allTracks.size() == 5 &&
+                        state.currentTrackID == 4 &&
+                        state.currentVolume == 0.3
+        );
+    }
+
+    @Test
+    public void testTornRecordIsIgnored() throws IOException, InterruptedException {
+
+        //
+        // Given
+        //
+        Path journalFile = Files.createTempDirectory("journal").resolve("library.journal");
+        StateJournal journal = new StateJournal(journalFile, 0);
+        journal.trackAdded(track("yesterday"));
+        journal.trackAdded(track("help"));
+        journal.close();
+        Path generation = journalFile.resolveSibling("library.journal.0");
+        long size = Files.size(generation);
+        try (var channel = Files.newByteChannel(generation, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+
+        //
+        // When
+        //
+        PlayerState state = new PlayerState();
+        state.replayJournal(journalFile);
+
+        //
+        // Then
+        //
+        assert(
+                state.allTracks.size() == 1 &&
+                        Objects.equals(state.allTracks.get(0).getSongName(), "yesterday")
+        );
+    }
+
+    @Test
+    public void testSnapshotSkipsRotatedGenerations() throws IOException, InterruptedException {
+
+        //
+        // Given
+        //
+        Path journalFile = Files.createTempDirectory("journal").resolve("library.journal");
+        StateJournal journal = new StateJournal(journalFile, 0);
+        journal.trackAdded(track("yesterday"));
+        PlayerState snapshot = new PlayerState();
+        snapshot.allTracks.add(track("yesterday"));
+        snapshot.journalGeneration = journal.rotate();
+        journal.trackAdded(track("help"));
+        journal.flush();
+        journal.deleteBefore(snapshot.journalGeneration);
+        journal.close();
+
+        //
+        // When
+        //
+        snapshot.replayJournal(journalFile);
+
+        //
+        // Then
+        //
+        assert(
+                snapshot.allTracks.size() == 2 &&
+                        Objects.equals(snapshot.allTracks.get(1).getSongName(), "help") &&
+                        !Files.exists(journalFile.resolveSibling("library.journal.0"))
+        );
+    }
+}
@@ -0,0 +1,123 @@
+package com.player.mediaplayer;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public class SyntheticMp3 {
+    public final static int FRAME_LENGTH = 417;
+    public final static int SAMPLES_PER_FRAME = 1152;
+    public final static int SAMPLE_RATE = 44100;
+    private final static byte[] FRAME_HEADER = {(byte) 0xFF, (byte) 0xFB, (byte) 0x90, (byte) 0x00};
+
+    private String title;
+    private String artist;
+    private String album;
+    private byte[] artwork;
+    private int frames = SAMPLE_RATE / SAMPLES_PER_FRAME * 60;
+    private boolean xingHeader = false;
+
+    public SyntheticMp3 title(String title) {
+        this.title = title;
+        return this;
+    }
+
+    public SyntheticMp3 artist(String artist) {
+        this.artist = artist;
+        return this;
+    }
+
+    public SyntheticMp3 album(String album) {
+        this.album = album;
+        return this;
+    }
+
+    public SyntheticMp3 artwork(byte[] artwork) {
+        this.artwork = artwork;
+        return this;
+    }
+
+    public SyntheticMp3 frames(int frames) {
+        this.frames = frames;
+        return this;
+    }
+
+    public SyntheticMp3 xingHeader(boolean xingHeader) {
+        this.xingHeader = xingHeader;
+        return this;
+    }
+
+    public long durationMillis() {
+        return (long) frames * SAMPLES_PER_FRAME * 1000 / SAMPLE_RATE;
+    }
+
+    public File write(File file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.write(id3v2Tag());
+            byte[] frame = new byte[FRAME_LENGTH];
+            System.arraycopy(FRAME_HEADER, 0, frame, 0, FRAME_HEADER.length);
+            if (xingHeader) {
+                byte[] xingFrame = frame.clone();
+                System.arraycopy("Xing".getBytes(StandardCharsets.ISO_8859_1), 0, xingFrame, 36, 4);
+                writeInt(xingFrame, 40, 0x01);
+                writeInt(xingFrame, 44, frames);
+                out.write(xingFrame);
+            }
+            for (int i = 0; i < frames; ++i) {
+                out.write(frame);
+            }
+        }
+        return file;
+    }
+
+    private byte[] id3v2Tag() throws IOException {
+        ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        writeTextFrame(frames, "TIT2", title);
+        writeTextFrame(frames, "TPE1", artist);
+        writeTextFrame(frames, "TALB", album);
+        if (artwork != null) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            body.write(0);
+            body.write("image/jpeg".getBytes(StandardCharsets.ISO_8859_1));
+            body.write(0);
+            body.write(3);
+            body.write(0);
+            body.write(artwork);
+            writeFrame(frames, "APIC", body.toByteArray());
+        }
+        ByteArrayOutputStream tag = new ByteArrayOutputStream();
+        tag.write(new byte[]{'I', 'D', '3', 3, 0, 0});
+        int size = frames.size();
+        tag.write(new byte[]{(byte) ((size >> 21) & 0x7F), (byte) ((size >> 14) & 0x7F), (byte) ((size >> 7) & 0x7F), (byte) (size & 0x7F)});
+        frames.writeTo(tag);
+        return tag.toByteArray();
+    }
+
+    private static void writeTextFrame(ByteArrayOutputStream out, String id, String text) throws IOException {
+        if (text != null) {
+            byte[] bytes = text.getBytes(StandardCharsets.ISO_8859_1);
+            byte[] body = new byte[bytes.length + 1];
+            System.arraycopy(bytes, 0, body, 1, bytes.length);
+            writeFrame(out, id, body);
+        }
+    }
+
+    private static void writeFrame(ByteArrayOutputStream out, String id, byte[] body) throws IOException {
+        byte[] header = new byte[10];
+        System.arraycopy(id.getBytes(StandardCharsets.ISO_8859_1), 0, header, 0, 4);
+        writeInt(header, 4, body.length);
+        out.write(header);
+        out.write(body);
+    }
+
+    private static void writeInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >> 24);
+        target[offset + 1] = (byte) (value >> 16);
+        target[offset + 2] = (byte) (value >> 8);
+        target[offset + 3] = (byte) value;
+    }
+}
@@ -0,0 +1,55 @@
+package com.player.mediaplayer;
+
+import com.player.mediaplayer.models.SortedPlaylistView;
+import com.player.mediaplayer.models.Track;
+import javafx.collections.FXCollections;
+import javafx.collections.transformation.SortedList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+public class TrackSortBenchmark {
+    private final static int ROWS = 100_000;
+    private final static int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        List<Track> tracks = tracks();
+        System.out.printf("%,d rows: built tracks and collation keys in %.1f ms%n", ROWS, (System.nanoTime() - start) / 1e6);
+        for (int round = 0; round < ROUNDS; ++round) {
+            List<Track> shuffled = new ArrayList<>(tracks);
+            Collections.shuffle(shuffled, new Random(round));
+            double strings = measureSortedList(shuffled, Comparator.comparing(Track::getSongArtist).thenComparing(Track::getSongName));
+            double keys = measureView(shuffled, Track.BY_ARTIST.thenComparing(Track.BY_NAME));
+            double duration = measureView(shuffled, Track.BY_DURATION);
+            System.out.printf("%,d rows: SortedList on strings %.1f ms, view on collation keys %.1f ms, view on duration %.1f ms%n", ROWS, strings, keys, duration);
+        }
+    }
+
+    private static double measureSortedList(List<Track> tracks, Comparator<Track> comparator) {
+        SortedList<Track> sorted = new SortedList<>(FXCollections.observableList(tracks));
+        long start = System.nanoTime();
+        sorted.setComparator(comparator);
+        return (System.nanoTime() - start) / 1e6;
+    }
+
+    private static double measureView(List<Track> tracks, Comparator<Track> comparator) {
+        SortedPlaylistView sorted = new SortedPlaylistView(FXCollections.observableList(tracks));
+        long start = System.nanoTime();
+        sorted.setComparator(comparator);
+        return (System.nanoTime() - start) / 1e6;
+    }
+
+    private static List<Track> tracks() {
+        Random random = new Random(3);
+        List<Track> tracks = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; ++i) {
+            tracks.add(new Track("Track " + random.nextInt(ROWS), "Artist " + random.nextInt(500), "Album " + random.nextInt(2000),
+                    random.nextInt(600_000), "track" + i + ".mp3", null));
+        }
+        return tracks;
+    }
+}